@@ -0,0 +1,212 @@
+/**
+* Defines a library of selection methods on arrays of doubles. Every
+* method has the same contract as the Selector method of the same name,
+* with double in place of int, and no value is ever boxed.
+*
+* Values are ordered as Double.compare orders them, which makes every
+* method total: -0.0 is less than 0.0 (and the two are distinct values),
+* NaN is greater than every other value including positive infinity, and
+* all NaNs are equal to one another. So max returns NaN if a holds one,
+* kmax(a, 1) is NaN in that case, and range(a, 0.0, 0.0) excludes -0.0.
+*
+* Each double is mapped to a long whose signed order is that total
+* order (flip every bit but the sign of negative values), and the
+* selection itself runs on LongSelector's engine.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class DoubleSelector {
+
+   /**
+    * Can't instantiate this class.
+    */
+   private DoubleSelector() { }
+
+
+   /**
+    * Selects the minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static double min(double[] a)throws IllegalArgumentException {
+      check(a);
+      long min = key(a[0]);
+      for (double var : a) {
+         min = Math.min(min, key(var));
+      }
+      return value(min);
+   }
+
+
+   /**
+    * Selects the maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static double max(double[] a)throws IllegalArgumentException {
+      check(a);
+      long max = key(a[0]);
+      for (double var : a) {
+         max = Math.max(max, key(var));
+      }
+      return value(max);
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth minimum value. Note that there is no kth
+    * minimum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static double kmin(double[] a, int k)throws IllegalArgumentException {
+      check(a);
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      long[] keys = new long[a.length];
+      for (int i = 0; i < a.length; i++) {
+         keys[i] = key(a[i]);
+      }
+      return value(LongSelector.distinctSelect(keys, 0, keys.length, k));
+   }
+
+
+   /**
+    * Selects the kth maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth maximum value. Note that there is no kth
+    * maximum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static double kmax(double[] a, int k)throws IllegalArgumentException {
+      check(a);
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      long[] keys = new long[a.length];
+      for (int i = 0; i < a.length; i++) {
+         keys[i] = ~key(a[i]);
+      }
+      return value(~LongSelector.distinctSelect(keys, 0, keys.length, k));
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the
+    * range [low..high], including duplicate values, in the order they
+    * appear in a. If there are no qualifying values, this method
+    * returns a zero-length array. Note that low and high do not have
+    * to be actual values in a. This method throws an
+    * IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    */
+   public static double[] range(double[] a, double low, double high)throws IllegalArgumentException {
+      check(a);
+      long lo = key(low);
+      long hi = key(high);
+      if (lo > hi) {
+         return new double[0];
+      }
+      long span = hi - lo;
+      int count = 0;
+      for (double var : a) {
+         count += Long.compareUnsigned(key(var) - lo, span) <= 0 ? 1 : 0;
+      }
+      double[] b = new double[count];
+      int j = 0;
+      for (double var : a) {
+         if (Long.compareUnsigned(key(var) - lo, span) <= 0) {
+            b[j++] = var;
+         }
+      }
+      return b;
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static double ceiling(double[] a, double key)throws IllegalArgumentException {
+      check(a);
+      long k = key(key);
+      boolean found = false;
+      long ceiling = Long.MAX_VALUE;
+      for (double var : a) {
+         long v = key(var);
+         if (v >= k) {
+            found = true;
+            ceiling = Math.min(ceiling, v);
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return value(ceiling);
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static double floor(double[] a, double key)throws IllegalArgumentException {
+      check(a);
+      long k = key(key);
+      boolean found = false;
+      long floor = Long.MIN_VALUE;
+      for (double var : a) {
+         long v = key(var);
+         if (v <= k) {
+            found = true;
+            floor = Math.max(floor, v);
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return value(floor);
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if a is null or has zero length.
+    */
+   private static void check(double[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+   }
+
+
+   /**
+    * Returns a long whose signed order matches Double.compare on d.
+    * doubleToLongBits folds every NaN into one canonical NaN.
+    */
+   static long key(double d) {
+      long bits = Double.doubleToLongBits(d);
+      return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+   }
+
+
+   /**
+    * Inverts key.
+    */
+   static double value(long key) {
+      return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+   }
+
+}
@@ -0,0 +1,334 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+* Defines a library of selection methods on arrays of any reference
+* type, ordered by a Comparator. Every method has the same contract as
+* the Selector method of the same name, with two values counted as the
+* same value when the comparator returns 0 for them. Each method also
+* throws IllegalArgumentException if the comparator is null.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class GenericSelector {
+
+   /** Size at or below which a partition is finished by insertion sort. */
+   private static final int INSERTION_CUTOFF = 16;
+
+
+   /**
+    * Can't instantiate this class.
+    */
+   private GenericSelector() { }
+
+
+   /**
+    * Selects the minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static <T> T min(T[] a, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      T min = a[0];
+      for (T var : a) {
+         if (c.compare(var, min) < 0) {
+            min = var;
+         }
+      }
+      return min;
+   }
+
+
+   /**
+    * Selects the maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static <T> T max(T[] a, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      T max = a[0];
+      for (T var : a) {
+         if (c.compare(var, max) > 0) {
+            max = var;
+         }
+      }
+      return max;
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth minimum value. Note that there is no kth
+    * minimum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static <T> T kmin(T[] a, int k, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      return distinctSelect(Arrays.copyOf(a, a.length), 0, a.length, k, c);
+   }
+
+
+   /**
+    * Selects the kth maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth maximum value. Note that there is no kth
+    * maximum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static <T> T kmax(T[] a, int k, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      Comparator<T> reversed = (x, y) -> c.compare(y, x);
+      return distinctSelect(Arrays.copyOf(a, a.length), 0, a.length, k, reversed);
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the
+    * range [low..high], including duplicate values, in the order they
+    * appear in a. The returned array has the same component type as a.
+    * If there are no qualifying values, this method returns a
+    * zero-length array. Note that low and high do not have to be
+    * actual values in a. This method throws an
+    * IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    */
+   public static <T> T[] range(T[] a, T low, T high, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      T[] b = Arrays.copyOf(a, a.length);
+      int j = 0;
+      for (T var : a) {
+         if (c.compare(var, low) >= 0 && c.compare(var, high) <= 0) {
+            b[j++] = var;
+         }
+      }
+      return Arrays.copyOf(b, j);
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static <T> T ceiling(T[] a, T key, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      T ceiling = null;
+      boolean found = false;
+      for (T var : a) {
+         if (c.compare(var, key) >= 0 && (!found || c.compare(var, ceiling) < 0)) {
+            ceiling = var;
+            found = true;
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static <T> T floor(T[] a, T key, Comparator<? super T> c)throws IllegalArgumentException {
+      check(a, c);
+      T floor = null;
+      boolean found = false;
+      for (T var : a) {
+         if (c.compare(var, key) <= 0 && (!found || c.compare(var, floor) > 0)) {
+            floor = var;
+            found = true;
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return floor;
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if a is null or has zero length,
+    * or if c is null.
+    */
+   private static void check(Object[] a, Comparator<?> c) {
+      if (a == null || a.length == 0 || c == null) {
+         throw new IllegalArgumentException();
+      }
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value in a[lo..hi), overwriting
+    * that part of a. Throws IllegalArgumentException if there are fewer
+    * than k distinct values.
+    */
+   private static <T> T distinctSelect(T[] a, int lo, int hi, int k, Comparator<? super T> c) {
+      if (distinctSort(a, lo, hi, k, c) < k) {
+         throw new IllegalArgumentException();
+      }
+      return a[lo + k - 1];
+   }
+
+
+   /**
+    * Moves the m smallest distinct values of a[lo..hi) to a[lo..lo + m)
+    * in ascending order, where m is k or the number of distinct values
+    * in the range if that is smaller, and returns m; see
+    * Selector.distinctSort for the method and its cost.
+    */
+   private static <T> int distinctSort(T[] a, int lo, int hi, int k, Comparator<? super T> c) {
+      int start = lo;
+      int out = lo;
+      int guess = k;
+      for (int round = 0; k > 0 && hi - lo > INSERTION_CUTOFF
+            && k < (hi - lo) / Selector.SORT_FRACTION; round++) {
+         int half = (hi - lo) >>> 1;
+         int r = lo + (round < Selector.RANK_ROUNDS ? Math.min(guess - 1, half) : half);
+         select(a, lo, hi, r, c);
+         T p = a[r];
+         int lt = lo;
+         for (int i = lo; i < r; i++) {
+            if (c.compare(a[i], p) < 0) {
+               a[lt++] = a[i];
+            }
+         }
+         int gt = hi;
+         for (int i = hi - 1; i > r; i--) {
+            if (c.compare(a[i], p) > 0) {
+               a[--gt] = a[i];
+            }
+         }
+         int m = distinctSort(a, lo, lt, k, c);
+         System.arraycopy(a, lo, a, out, m);
+         out += m;
+         k -= m;
+         if (k == 0) {
+            break;
+         }
+         a[out++] = p;
+         k--;
+         guess = (int) Math.min(Integer.MAX_VALUE, (long) k * (gt - lo) / (m + 1) + 1);
+         lo = gt;
+      }
+      if (k > 0 && lo < hi) {
+         Arrays.sort(a, lo, hi, c);
+         T prev = a[lo];
+         a[out++] = prev;
+         k--;
+         for (int i = lo + 1; i < hi && k > 0; i++) {
+            if (c.compare(a[i], prev) != 0) {
+               prev = a[i];
+               a[out++] = prev;
+               k--;
+            }
+         }
+      }
+      return out - start;
+   }
+
+
+   /**
+    * Rearranges a[lo..hi) so that a[r] holds its sorted value, with
+    * the same introselect as Selector.select.
+    */
+   private static <T> void select(T[] a, int lo, int hi, int r, Comparator<? super T> c) {
+      hi--;
+      boolean guaranteed = false;
+      int rounds = 0;
+      int checkpoint = hi - lo + 1;
+      while (hi - lo >= INSERTION_CUTOFF) {
+         if (!guaranteed && ++rounds % 2 == 0) {
+            int size = hi - lo + 1;
+            guaranteed = size > checkpoint / 2;
+            checkpoint = size;
+         }
+         T p = guaranteed ? medianOfMedians(a, lo, hi, c)
+            : medianOf3(a[lo], a[(lo + hi) >>> 1], a[hi], c);
+
+         int lt = lo;
+         int gt = hi;
+         int i = lo;
+         while (i <= gt) {
+            T v = a[i];
+            int cmp = c.compare(v, p);
+            if (cmp < 0) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            }
+            else if (cmp > 0) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            }
+            else {
+               i++;
+            }
+         }
+         if (r < lt) {
+            hi = lt - 1;
+         }
+         else if (r > gt) {
+            lo = gt + 1;
+         }
+         else {
+            return;
+         }
+      }
+      Arrays.sort(a, lo, hi + 1, c);
+   }
+
+
+   /**
+    * Returns the median of the medians of groups of five in a[lo..hi],
+    * moving the group medians to the front of the range.
+    */
+   private static <T> T medianOfMedians(T[] a, int lo, int hi, Comparator<? super T> c) {
+      int m = lo;
+      for (int g = lo; g <= hi; g += 5) {
+         int end = Math.min(g + 4, hi);
+         Arrays.sort(a, g, end + 1, c);
+         int mid = (g + end) >>> 1;
+         T t = a[mid];
+         a[mid] = a[m];
+         a[m++] = t;
+      }
+      int r = (lo + m - 1) >>> 1;
+      select(a, lo, m, r, c);
+      return a[r];
+   }
+
+
+   /**
+    * Returns the median of three values.
+    */
+   private static <T> T medianOf3(T x, T y, T z, Comparator<? super T> c) {
+      if (c.compare(x, y) > 0) {
+         T t = x;
+         x = y;
+         y = t;
+      }
+      if (c.compare(y, z) <= 0) {
+         return y;
+      }
+      return c.compare(x, z) >= 0 ? x : z;
+   }
+
+}
@@ -0,0 +1,337 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+* A mergeable approximate quantile sketch for unbounded streams of ints,
+* after the KLL sketch of Karnin, Lang and Liberty (2016).
+*
+* Values land in a stack of compactors. Level h holds items that each
+* stand for 2^h stream values, and its capacity shrinks geometrically
+* (by 2/3) going down from the top, so the sketch keeps about 3k items
+* however long the stream. When a level fills it is sorted and every
+* other item, starting at a random offset, is promoted to the next
+* level. With accuracy parameter k the rank error of any answer is
+* about 1.7 / k of the stream length with high probability (under one
+* percent at the default k of 200). The minimum and maximum are exact.
+*
+* A sketch is not safe for concurrent updates. To split a stream across
+* threads give each thread its own sketch and merge them; merging
+* preserves the error bound.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class IntQuantileSketch implements IntConsumer {
+
+   /** Default accuracy parameter. */
+   public static final int DEFAULT_K = 200;
+
+   /** Smallest accepted accuracy parameter. */
+   private static final int MIN_K = 8;
+
+   /** accuracy parameter. */
+   private final int k;
+
+   /** levels[h] holds sizes[h] items of weight 2^h. */
+   private int[][] levels = new int[1][];
+   private int[] sizes = new int[1];
+
+   /** number of levels in use. */
+   private int height = 1;
+
+   /** number of items held across all levels. */
+   private int held;
+
+   /** number of values seen. */
+   private long count;
+
+   private int min = Integer.MAX_VALUE;
+   private int max = Integer.MIN_VALUE;
+
+   private final SplittableRandom random = new SplittableRandom();
+
+
+   /**
+    * Creates a sketch with the default accuracy parameter.
+    */
+   public IntQuantileSketch() {
+      this(DEFAULT_K);
+   }
+
+
+   /**
+    * Creates a sketch with accuracy parameter k. This constructor
+    * throws IllegalArgumentException if k < 8.
+    */
+   public IntQuantileSketch(int k)throws IllegalArgumentException {
+      if (k < MIN_K) {
+         throw new IllegalArgumentException();
+      }
+      this.k = k;
+      levels[0] = new int[k];
+   }
+
+
+   /**
+    * Adds one value to this sketch.
+    */
+   @Override
+   public void accept(int value) {
+      count++;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      append(0, value);
+      if (sizes[0] >= capacity(0)) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Adds every value in values to this sketch. This method throws
+    * IllegalArgumentException if values is null.
+    */
+   public void acceptAll(int[] values)throws IllegalArgumentException {
+      if (values == null) {
+         throw new IllegalArgumentException();
+      }
+      for (int v : values) {
+         accept(v);
+      }
+   }
+
+
+   /**
+    * Adds every value in the stream to this sketch. A parallel stream
+    * is consumed in parallel, each worker filling its own sketch, and
+    * the results are merged into this one.
+    */
+   public void acceptAll(IntStream values) {
+      if (values.isParallel()) {
+         merge(values.collect(() -> new IntQuantileSketch(k),
+            IntQuantileSketch::accept, IntQuantileSketch::merge));
+      }
+      else {
+         values.forEach(this);
+      }
+   }
+
+
+   /**
+    * Adds everything other has seen to this sketch. other is not
+    * changed. This method throws IllegalArgumentException if other is
+    * null, is this sketch, or has a different accuracy parameter.
+    */
+   public void merge(IntQuantileSketch other)throws IllegalArgumentException {
+      if (other == null || other == this || other.k != k) {
+         throw new IllegalArgumentException();
+      }
+      if (other.count == 0) {
+         return;
+      }
+      while (height < other.height) {
+         grow();
+      }
+      for (int h = 0; h < other.height; h++) {
+         for (int i = 0; i < other.sizes[h]; i++) {
+            append(h, other.levels[h][i]);
+         }
+      }
+      count += other.count;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+      compress();
+   }
+
+
+   /**
+    * Returns the number of values this sketch has seen.
+    */
+   public long count() {
+      return count;
+   }
+
+
+   /**
+    * Returns the smallest value seen. This method throws
+    * IllegalStateException if no values have been seen.
+    */
+   public int min()throws IllegalStateException {
+      if (count == 0) {
+         throw new IllegalStateException();
+      }
+      return min;
+   }
+
+
+   /**
+    * Returns the largest value seen. This method throws
+    * IllegalStateException if no values have been seen.
+    */
+   public int max()throws IllegalStateException {
+      if (count == 0) {
+         throw new IllegalStateException();
+      }
+      return max;
+   }
+
+
+   /**
+    * Returns an estimate of the number of values seen that are less
+    * than or equal to value.
+    */
+   public long rank(int value) {
+      long rank = 0;
+      for (int h = 0; h < height; h++) {
+         int below = 0;
+         for (int i = 0; i < sizes[h]; i++) {
+            if (levels[h][i] <= value) {
+               below++;
+            }
+         }
+         rank += (long) below << h;
+      }
+      return rank;
+   }
+
+
+   /**
+    * Returns an estimate of the q-quantile of the values seen: a value
+    * whose rank is about q times count(). quantile(0) and quantile(1)
+    * are the exact minimum and maximum. This method throws
+    * IllegalArgumentException if q is not in [0, 1] and
+    * IllegalStateException if no values have been seen.
+    */
+   public int quantile(double q)throws IllegalArgumentException, IllegalStateException {
+      return quantiles(q)[0];
+   }
+
+
+   /**
+    * Returns estimates of several quantiles at once, sharing one sort
+    * of the sketch. Each answer is as for quantile. This method throws
+    * IllegalArgumentException if any q is not in [0, 1] and
+    * IllegalStateException if no values have been seen.
+    */
+   public int[] quantiles(double... qs)throws IllegalArgumentException, IllegalStateException {
+      for (double q : qs) {
+         if (!(q >= 0.0 && q <= 1.0)) {
+            throw new IllegalArgumentException();
+         }
+      }
+      if (count == 0) {
+         throw new IllegalStateException();
+      }
+      // pack (value, level) into longs so one primitive sort orders
+      // every item by value while remembering its weight
+      long[] items = new long[held];
+      int m = 0;
+      for (int h = 0; h < height; h++) {
+         for (int i = 0; i < sizes[h]; i++) {
+            items[m++] = ((long) levels[h][i] << 32) | h;
+         }
+      }
+      Arrays.sort(items);
+      int[] result = new int[qs.length];
+      for (int j = 0; j < qs.length; j++) {
+         double target = qs[j] * count;
+         if (qs[j] == 0.0) {
+            result[j] = min;
+            continue;
+         }
+         if (qs[j] == 1.0) {
+            result[j] = max;
+            continue;
+         }
+         long cumulative = 0;
+         result[j] = max;
+         for (long item : items) {
+            cumulative += 1L << (int) item;
+            if (cumulative >= target) {
+               result[j] = (int) (item >> 32);
+               break;
+            }
+         }
+      }
+      return result;
+   }
+
+
+   /**
+    * Returns the capacity of level h: k at the top, shrinking by a
+    * factor of 2/3 per level below it, and never less than 2.
+    */
+   private int capacity(int h) {
+      return Math.max(2, (int) Math.ceil(k * Math.pow(2.0 / 3.0, height - 1 - h)));
+   }
+
+
+   /**
+    * Appends value to level h, growing that level's array as needed.
+    */
+   private void append(int h, int value) {
+      if (sizes[h] == levels[h].length) {
+         levels[h] = Arrays.copyOf(levels[h], Math.max(2, levels[h].length * 2));
+      }
+      levels[h][sizes[h]++] = value;
+      held++;
+   }
+
+
+   /**
+    * Adds an empty level on top.
+    */
+   private void grow() {
+      levels = Arrays.copyOf(levels, height + 1);
+      sizes = Arrays.copyOf(sizes, height + 1);
+      levels[height] = new int[k];
+      height++;
+   }
+
+
+   /**
+    * Compacts full levels, lowest first, until the sketch is back
+    * within its total capacity.
+    */
+   private void compress() {
+      for (int h = 0; h < height; h++) {
+         if (sizes[h] < capacity(h)) {
+            continue;
+         }
+         if (h + 1 == height) {
+            grow();
+         }
+         int[] level = levels[h];
+         int size = sizes[h];
+         Arrays.sort(level, 0, size);
+         // an odd item out stays behind at this level
+         int keep = size % 2;
+         int offset = random.nextBoolean() ? 1 : 0;
+         for (int i = keep + offset; i < size; i += 2) {
+            append(h + 1, level[i]);
+         }
+         held -= size - keep;
+         sizes[h] = keep;
+         if (held < totalCapacity()) {
+            return;
+         }
+      }
+   }
+
+
+   /**
+    * Returns the sum of the capacities of every level.
+    */
+   private int totalCapacity() {
+      int total = 0;
+      for (int h = 0; h < height; h++) {
+         total += capacity(h);
+      }
+      return total;
+   }
+
+}
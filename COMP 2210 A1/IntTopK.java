@@ -0,0 +1,170 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+* Tracks, exactly, the k smallest or k largest distinct values of an
+* unbounded stream of ints in O(k) memory. At any point kth(j) answers
+* what Selector.kmin (or kmax) would for the values seen so far, for
+* any j up to k.
+*
+* A tracker is not safe for concurrent updates. To split a stream
+* across threads give each thread its own tracker and merge them.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class IntTopK implements IntConsumer {
+
+   /** number of values kept. */
+   private final int k;
+
+   /** true if this tracks the largest values. */
+   private final boolean largest;
+
+   /**
+    * kept values in ascending rank order. Values of a largest-k tracker
+    * are stored complemented (~v reverses int order), so both kinds
+    * share one code path.
+    */
+   private final int[] ranked;
+
+   /** number of values currently kept. */
+   private int size;
+
+
+   /**
+    * Creates a tracker. Use smallest or largest.
+    */
+   private IntTopK(int k, boolean largest) {
+      if (k < 1) {
+         throw new IllegalArgumentException();
+      }
+      this.k = k;
+      this.largest = largest;
+      this.ranked = new int[k];
+   }
+
+
+   /**
+    * Returns a tracker of the k smallest distinct values. This method
+    * throws IllegalArgumentException if k < 1.
+    */
+   public static IntTopK smallest(int k)throws IllegalArgumentException {
+      return new IntTopK(k, false);
+   }
+
+
+   /**
+    * Returns a tracker of the k largest distinct values. This method
+    * throws IllegalArgumentException if k < 1.
+    */
+   public static IntTopK largest(int k)throws IllegalArgumentException {
+      return new IntTopK(k, true);
+   }
+
+
+   /**
+    * Offers one value to this tracker. Once k values are held, a value
+    * that would not make the cut costs a single comparison.
+    */
+   @Override
+   public void accept(int value) {
+      int t = largest ? ~value : value;
+      if (size == k && t >= ranked[k - 1]) {
+         return;
+      }
+      int pos = Arrays.binarySearch(ranked, 0, size, t);
+      if (pos >= 0) {
+         return;
+      }
+      pos = -pos - 1;
+      int moved = Math.min(size, k - 1) - pos;
+      System.arraycopy(ranked, pos, ranked, pos + 1, moved);
+      ranked[pos] = t;
+      size = Math.min(size + 1, k);
+   }
+
+
+   /**
+    * Offers every value in values to this tracker. This method throws
+    * IllegalArgumentException if values is null.
+    */
+   public void acceptAll(int[] values)throws IllegalArgumentException {
+      if (values == null) {
+         throw new IllegalArgumentException();
+      }
+      for (int v : values) {
+         accept(v);
+      }
+   }
+
+
+   /**
+    * Offers every value in the stream to this tracker. A parallel
+    * stream is consumed in parallel, each worker filling its own
+    * tracker, and the results are merged into this one.
+    */
+   public void acceptAll(IntStream values) {
+      if (values.isParallel()) {
+         merge(values.collect(() -> new IntTopK(k, largest), IntTopK::accept, IntTopK::merge));
+      }
+      else {
+         values.forEach(this);
+      }
+   }
+
+
+   /**
+    * Adds everything other has seen to this tracker. This method throws
+    * IllegalArgumentException if other is null or does not track the
+    * same number and kind of values.
+    */
+   public void merge(IntTopK other)throws IllegalArgumentException {
+      if (other == null || other.k != k || other.largest != largest) {
+         throw new IllegalArgumentException();
+      }
+      for (int i = 0; i < other.size; i++) {
+         accept(largest ? ~other.ranked[i] : other.ranked[i]);
+      }
+   }
+
+
+   /**
+    * Returns the number of values held, which is the smaller of k and
+    * the number of distinct values seen.
+    */
+   public int size() {
+      return size;
+   }
+
+
+   /**
+    * Returns the jth smallest (or largest) distinct value seen so far.
+    * This method throws IllegalArgumentException if j < 1 or j > size().
+    */
+   public int kth(int j)throws IllegalArgumentException {
+      if (j < 1 || j > size) {
+         throw new IllegalArgumentException();
+      }
+      return largest ? ~ranked[j - 1] : ranked[j - 1];
+   }
+
+
+   /**
+    * Returns the values held, smallest first for a smallest-k tracker
+    * and largest first for a largest-k tracker.
+    */
+   public int[] toArray() {
+      int[] a = Arrays.copyOf(ranked, size);
+      if (largest) {
+         for (int i = 0; i < a.length; i++) {
+            a[i] = ~a[i];
+         }
+      }
+      return a;
+   }
+
+}
@@ -0,0 +1,343 @@
+import java.util.Arrays;
+
+/**
+* Defines a library of selection methods on arrays of longs. Every
+* method has the same contract as the Selector method of the same name,
+* with long in place of int, and no value is ever boxed.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class LongSelector {
+
+   /** Size at or below which a partition is finished by insertion sort. */
+   private static final int INSERTION_CUTOFF = 16;
+
+
+   /**
+    * Can't instantiate this class.
+    */
+   private LongSelector() { }
+
+
+   /**
+    * Selects the minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static long min(long[] a)throws IllegalArgumentException {
+      check(a);
+      long min = a[0];
+      for (long var : a) {
+         min = Math.min(min, var);
+      }
+      return min;
+   }
+
+
+   /**
+    * Selects the maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static long max(long[] a)throws IllegalArgumentException {
+      check(a);
+      long max = a[0];
+      for (long var : a) {
+         max = Math.max(max, var);
+      }
+      return max;
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth minimum value. Note that there is no kth
+    * minimum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static long kmin(long[] a, int k)throws IllegalArgumentException {
+      check(a);
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      return distinctSelect(Arrays.copyOf(a, a.length), 0, a.length, k);
+   }
+
+
+   /**
+    * Selects the kth maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth maximum value. Note that there is no kth
+    * maximum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static long kmax(long[] a, int k)throws IllegalArgumentException {
+      check(a);
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      long[] b = new long[a.length];
+      for (int i = 0; i < a.length; i++) {
+         b[i] = ~a[i];
+      }
+      return ~distinctSelect(b, 0, b.length, k);
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the
+    * range [low..high], including duplicate values, in the order they
+    * appear in a. If there are no qualifying values, this method
+    * returns a zero-length array. Note that low and high do not have
+    * to be actual values in a. This method throws an
+    * IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    */
+   public static long[] range(long[] a, long low, long high)throws IllegalArgumentException {
+      check(a);
+      if (low > high) {
+         return new long[0];
+      }
+      long span = high - low;
+      int count = 0;
+      for (long var : a) {
+         count += Long.compareUnsigned(var - low, span) <= 0 ? 1 : 0;
+      }
+      long[] b = new long[count];
+      int j = 0;
+      for (long var : a) {
+         if (Long.compareUnsigned(var - low, span) <= 0) {
+            b[j++] = var;
+         }
+      }
+      return b;
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static long ceiling(long[] a, long key)throws IllegalArgumentException {
+      check(a);
+      boolean found = false;
+      long ceiling = Long.MAX_VALUE;
+      for (long var : a) {
+         if (var >= key) {
+            found = true;
+            ceiling = Math.min(ceiling, var);
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static long floor(long[] a, long key)throws IllegalArgumentException {
+      check(a);
+      boolean found = false;
+      long floor = Long.MIN_VALUE;
+      for (long var : a) {
+         if (var <= key) {
+            found = true;
+            floor = Math.max(floor, var);
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException();
+      }
+      return floor;
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if a is null or has zero length.
+    */
+   private static void check(long[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value in a[lo..hi), overwriting
+    * that part of a. Throws IllegalArgumentException if there are fewer
+    * than k distinct values.
+    */
+   static long distinctSelect(long[] a, int lo, int hi, int k) {
+      if (distinctSort(a, lo, hi, k) < k) {
+         throw new IllegalArgumentException();
+      }
+      return a[lo + k - 1];
+   }
+
+
+   /**
+    * Moves the c smallest distinct values of a[lo..hi) to a[lo..lo + c)
+    * in ascending order, where c is k or the number of distinct values
+    * in the range if that is smaller, and returns c; see
+    * Selector.distinctSort for the method and its cost.
+    */
+   private static int distinctSort(long[] a, int lo, int hi, int k) {
+      int start = lo;
+      int out = lo;
+      int guess = k;
+      for (int round = 0; k > 0 && hi - lo > INSERTION_CUTOFF
+            && k < (hi - lo) / Selector.SORT_FRACTION; round++) {
+         int half = (hi - lo) >>> 1;
+         int r = lo + (round < Selector.RANK_ROUNDS ? Math.min(guess - 1, half) : half);
+         select(a, lo, hi, r);
+         long p = a[r];
+         int lt = lo;
+         for (int i = lo; i < r; i++) {
+            if (a[i] < p) {
+               a[lt++] = a[i];
+            }
+         }
+         int gt = hi;
+         for (int i = hi - 1; i > r; i--) {
+            if (a[i] > p) {
+               a[--gt] = a[i];
+            }
+         }
+         int c = distinctSort(a, lo, lt, k);
+         System.arraycopy(a, lo, a, out, c);
+         out += c;
+         k -= c;
+         if (k == 0) {
+            break;
+         }
+         a[out++] = p;
+         k--;
+         guess = (int) Math.min(Integer.MAX_VALUE, (long) k * (gt - lo) / (c + 1) + 1);
+         lo = gt;
+      }
+      if (k > 0 && lo < hi) {
+         Arrays.sort(a, lo, hi);
+         long prev = a[lo];
+         a[out++] = prev;
+         k--;
+         for (int i = lo + 1; i < hi && k > 0; i++) {
+            if (a[i] != prev) {
+               prev = a[i];
+               a[out++] = prev;
+               k--;
+            }
+         }
+      }
+      return out - start;
+   }
+
+
+   /**
+    * Rearranges a[lo..hi) so that a[r] holds its sorted value, with
+    * the same introselect as Selector.select.
+    */
+   static void select(long[] a, int lo, int hi, int r) {
+      hi--;
+      boolean guaranteed = false;
+      int rounds = 0;
+      int checkpoint = hi - lo + 1;
+      while (hi - lo >= INSERTION_CUTOFF) {
+         if (!guaranteed && ++rounds % 2 == 0) {
+            int size = hi - lo + 1;
+            guaranteed = size > checkpoint / 2;
+            checkpoint = size;
+         }
+         long p = guaranteed ? medianOfMedians(a, lo, hi)
+            : medianOf3(a[lo], a[(lo + hi) >>> 1], a[hi]);
+
+         int lt = lo;
+         int gt = hi;
+         int i = lo;
+         while (i <= gt) {
+            long v = a[i];
+            if (v < p) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            }
+            else if (v > p) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            }
+            else {
+               i++;
+            }
+         }
+         if (r < lt) {
+            hi = lt - 1;
+         }
+         else if (r > gt) {
+            lo = gt + 1;
+         }
+         else {
+            return;
+         }
+      }
+      insertionSort(a, lo, hi);
+   }
+
+
+   /**
+    * Returns the median of the medians of groups of five in a[lo..hi],
+    * moving the group medians to the front of the range.
+    */
+   private static long medianOfMedians(long[] a, int lo, int hi) {
+      int m = lo;
+      for (int g = lo; g <= hi; g += 5) {
+         int end = Math.min(g + 4, hi);
+         insertionSort(a, g, end);
+         int mid = (g + end) >>> 1;
+         long t = a[mid];
+         a[mid] = a[m];
+         a[m++] = t;
+      }
+      int r = (lo + m - 1) >>> 1;
+      select(a, lo, m, r);
+      return a[r];
+   }
+
+
+   /**
+    * Returns the median of three values.
+    */
+   private static long medianOf3(long x, long y, long z) {
+      return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+   }
+
+
+   /**
+    * Sorts a[lo..hi] in place.
+    */
+   private static void insertionSort(long[] a, int lo, int hi) {
+      for (int i = lo + 1; i <= hi; i++) {
+         long v = a[i];
+         int j = i - 1;
+         while (j >= lo && a[j] > v) {
+            a[j + 1] = a[j];
+            j--;
+         }
+         a[j + 1] = v;
+      }
+   }
+
+}
@@ -0,0 +1,364 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+* Provides the Selector methods over a binary file of little-endian
+* ints that may be far larger than the heap. The file is memory-mapped
+* in chunks of up to 1 GiB and read in place; nothing is copied onto
+* the heap except the bounded working memory of kmin and kmax.
+*
+* Every query has the same contract as the Selector method of the same
+* name applied to the file's contents as an array, except that sizes
+* and ranks are longs. Instances are safe for concurrent reads.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class MappedSelector implements Closeable {
+
+   /** Default heap budget, in bytes, for the kmin/kmax bitmaps. */
+   public static final int DEFAULT_BITMAP_BYTES = 64 << 20;
+
+   /** Bytes mapped per chunk; a multiple of four below 2^31. */
+   private static final long CHUNK_BYTES = 1L << 30;
+
+   /** Values are bucketed on their top 16 bits, 65536 values per bucket. */
+   private static final int BUCKETS = 1 << 16;
+
+   /** Longs needed for a bitmap of one bucket. */
+   private static final int BUCKET_WORDS = BUCKETS / 64;
+
+   private final FileChannel channel;
+   private final IntBuffer[] chunks;
+   private final long size;
+   private final int windowBuckets;
+
+
+   /**
+    * Maps the file at path for reading, with the default kmin/kmax
+    * memory budget. This constructor throws IllegalArgumentException
+    * if the file is empty or its length is not a multiple of four, and
+    * IOException if it cannot be opened or mapped.
+    */
+   public MappedSelector(Path path)throws IOException {
+      this(path, DEFAULT_BITMAP_BYTES);
+   }
+
+
+   /**
+    * Maps the file at path for reading. kmin and kmax will use at most
+    * about bitmapBytes of heap (never less than 8 KiB) plus a fixed
+    * 768 KiB of bucket tables. This constructor throws
+    * IllegalArgumentException if the file is empty or its length is not
+    * a multiple of four, and IOException if it cannot be opened or
+    * mapped.
+    */
+   public MappedSelector(Path path, int bitmapBytes)throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+         long bytes = channel.size();
+         if (bytes == 0 || bytes % 4 != 0) {
+            throw new IllegalArgumentException();
+         }
+         size = bytes / 4;
+         chunks = new IntBuffer[(int) ((bytes + CHUNK_BYTES - 1) / CHUNK_BYTES)];
+         for (int c = 0; c < chunks.length; c++) {
+            long offset = c * CHUNK_BYTES;
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                  Math.min(CHUNK_BYTES, bytes - offset))
+               .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+         }
+      }
+      catch (IOException | RuntimeException e) {
+         channel.close();
+         throw e;
+      }
+      windowBuckets = Math.max(1, bitmapBytes / (BUCKET_WORDS * 8));
+   }
+
+
+   /**
+    * Returns the number of ints in the file.
+    */
+   public long size() {
+      return size;
+   }
+
+
+   /**
+    * Closes the underlying channel. Mapped pages are released when the
+    * mappings are garbage collected, as NIO provides no explicit unmap.
+    */
+   @Override
+   public void close()throws IOException {
+      channel.close();
+   }
+
+
+   /**
+    * Selects the minimum value in the file.
+    */
+   public int min() {
+      int min = Integer.MAX_VALUE;
+      for (IntBuffer c : chunks) {
+         for (int i = 0, n = c.limit(); i < n; i++) {
+            min = Math.min(min, c.get(i));
+         }
+      }
+      return min;
+   }
+
+
+   /**
+    * Selects the maximum value in the file.
+    */
+   public int max() {
+      int max = Integer.MIN_VALUE;
+      for (IntBuffer c : chunks) {
+         for (int i = 0, n = c.limit(); i < n; i++) {
+            max = Math.max(max, c.get(i));
+         }
+      }
+      return max;
+   }
+
+
+   /**
+    * Returns the smallest value in the file that is greater than or
+    * equal to the given key. This method throws an
+    * IllegalArgumentException if there is no qualifying value.
+    */
+   public int ceiling(int key)throws IllegalArgumentException {
+      int ceiling = (int) floorCeiling(key);
+      if (ceiling == Integer.MAX_VALUE && rangeCount(ceiling, ceiling) == 0) {
+         throw new IllegalArgumentException();
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value in the file that is less than or equal
+    * to the given key. This method throws an IllegalArgumentException
+    * if there is no qualifying value.
+    */
+   public int floor(int key)throws IllegalArgumentException {
+      int floor = (int) (floorCeiling(key) >> 32);
+      if (floor == Integer.MIN_VALUE && rangeCount(floor, floor) == 0) {
+         throw new IllegalArgumentException();
+      }
+      return floor;
+   }
+
+
+   /**
+    * Returns the number of values in the file, counting duplicates,
+    * in the range [low..high]. Returns zero if low > high.
+    */
+   public long rangeCount(int low, int high) {
+      if (low > high) {
+         return 0;
+      }
+      int span = high - low;
+      long count = 0;
+      for (IntBuffer c : chunks) {
+         for (int i = 0, n = c.limit(); i < n; i++) {
+            if (Integer.compareUnsigned(c.get(i) - low, span) <= 0) {
+               count++;
+            }
+         }
+      }
+      return count;
+   }
+
+
+   /**
+    * Returns an array containing all the values in the file in the
+    * range [low..high], in file order, including duplicates. If there
+    * are no qualifying values, this method returns a zero-length array.
+    * This method throws IllegalArgumentException if there are more
+    * qualifying values than fit in an array.
+    */
+   public int[] range(int low, int high)throws IllegalArgumentException {
+      long count = rangeCount(low, high);
+      if (count > Integer.MAX_VALUE - 8) {
+         throw new IllegalArgumentException();
+      }
+      int[] b = new int[(int) count];
+      if (count == 0) {
+         return b;
+      }
+      int span = high - low;
+      int j = 0;
+      for (IntBuffer c : chunks) {
+         for (int i = 0, n = c.limit(); i < n; i++) {
+            int v = c.get(i);
+            if (Integer.compareUnsigned(v - low, span) <= 0) {
+               b[j++] = v;
+            }
+         }
+      }
+      return b;
+   }
+
+
+   /**
+    * Selects the kth minimum distinct value in the file. This method
+    * throws IllegalArgumentException if k < 1 or k is larger than the
+    * number of distinct values in the file.
+    */
+   public int kmin(long k)throws IllegalArgumentException {
+      return select(k, false);
+   }
+
+
+   /**
+    * Selects the kth maximum distinct value in the file. This method
+    * throws IllegalArgumentException if k < 1 or k is larger than the
+    * number of distinct values in the file.
+    */
+   public int kmax(long k)throws IllegalArgumentException {
+      return select(k, true);
+   }
+
+
+   /**
+    * Computes floor and ceiling of key in one pass, packed and with
+    * sentinels exactly as in Selector.
+    */
+   private long floorCeiling(int key) {
+      int floor = Integer.MIN_VALUE;
+      int ceiling = Integer.MAX_VALUE;
+      for (IntBuffer c : chunks) {
+         for (int i = 0, n = c.limit(); i < n; i++) {
+            int v = c.get(i);
+            floor = Math.max(floor, v <= key ? v : Integer.MIN_VALUE);
+            ceiling = Math.min(ceiling, v >= key ? v : Integer.MAX_VALUE);
+         }
+      }
+      return ((long) floor << 32) | (ceiling & 0xFFFFFFFFL);
+   }
+
+
+   /**
+    * Finds the kth distinct value from the bottom (or the top, if
+    * descending) by histogram narrowing. One pass counts values per
+    * bucket of the top 16 bits. Then the occupied buckets are taken in
+    * order, as many at a time as the bitmap budget allows, and each
+    * group costs one more pass that marks which of its values occur.
+    * Popcounts of each bucket's bitmap give its distinct count; the
+    * bucket where the running total reaches k holds the answer.
+    */
+   private int select(long k, boolean descending) {
+      if (k < 1 || k > size) {
+         throw new IllegalArgumentException();
+      }
+      long[] histogram = new long[BUCKETS];
+      for (IntBuffer c : chunks) {
+         for (int i = 0, n = c.limit(); i < n; i++) {
+            histogram[bucket(c.get(i))]++;
+         }
+      }
+
+      int[] slot = new int[BUCKETS];
+      int[] window = new int[Math.min(windowBuckets, BUCKETS)];
+      long[] bitmap = new long[window.length * BUCKET_WORDS];
+      int next = descending ? BUCKETS - 1 : 0;
+      int step = descending ? -1 : 1;
+      while (next >= 0 && next < BUCKETS) {
+         Arrays.fill(slot, -1);
+         int w = 0;
+         for (; next >= 0 && next < BUCKETS && w < window.length; next += step) {
+            if (histogram[next] != 0) {
+               slot[next] = w;
+               window[w++] = next;
+            }
+         }
+         if (w == 0) {
+            break;
+         }
+         Arrays.fill(bitmap, 0, w * BUCKET_WORDS, 0L);
+         for (IntBuffer c : chunks) {
+            for (int i = 0, n = c.limit(); i < n; i++) {
+               int v = c.get(i);
+               int s = slot[bucket(v)];
+               if (s >= 0) {
+                  int bit = (s << 16) | (v & 0xFFFF);
+                  bitmap[bit >>> 6] |= 1L << bit;
+               }
+            }
+         }
+         for (int s = 0; s < w; s++) {
+            int distinct = 0;
+            for (int j = s * BUCKET_WORDS; j < (s + 1) * BUCKET_WORDS; j++) {
+               distinct += Long.bitCount(bitmap[j]);
+            }
+            if (k > distinct) {
+               k -= distinct;
+               continue;
+            }
+            int low = descending ? nthBitFromTop(bitmap, s, (int) k) : nthBit(bitmap, s, (int) k);
+            return ((window[s] << 16) | low) ^ Integer.MIN_VALUE;
+         }
+      }
+      throw new IllegalArgumentException();
+   }
+
+
+   /**
+    * Returns the bucket of v: its top 16 bits, with the sign flipped so
+    * that buckets ascend in signed order.
+    */
+   private static int bucket(int v) {
+      return (v ^ Integer.MIN_VALUE) >>> 16;
+   }
+
+
+   /**
+    * Returns the position within bucket slot s of its kth lowest set bit.
+    */
+   private static int nthBit(long[] bitmap, int s, int k) {
+      for (int j = 0; j < BUCKET_WORDS; j++) {
+         long word = bitmap[s * BUCKET_WORDS + j];
+         int bits = Long.bitCount(word);
+         if (k > bits) {
+            k -= bits;
+            continue;
+         }
+         for (; k > 1; k--) {
+            word &= word - 1;
+         }
+         return j * 64 + Long.numberOfTrailingZeros(word);
+      }
+      throw new IllegalStateException();
+   }
+
+
+   /**
+    * Returns the position within bucket slot s of its kth highest set bit.
+    */
+   private static int nthBitFromTop(long[] bitmap, int s, int k) {
+      for (int j = BUCKET_WORDS - 1; j >= 0; j--) {
+         long word = bitmap[s * BUCKET_WORDS + j];
+         int bits = Long.bitCount(word);
+         if (k > bits) {
+            k -= bits;
+            continue;
+         }
+         for (; k > 1; k--) {
+            word &= ~Long.highestOneBit(word);
+         }
+         return j * 64 + 63 - Long.numberOfLeadingZeros(word);
+      }
+      throw new IllegalStateException();
+   }
+
+}
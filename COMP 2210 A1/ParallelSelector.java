@@ -0,0 +1,640 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+* Defines parallel versions of the Selector methods for very large
+* arrays of ints. Every method has the same contract as the Selector
+* method of the same name. Arrays shorter than the threshold are handed
+* to Selector unchanged; longer ones are split across the common
+* ForkJoinPool.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class ParallelSelector {
+
+   /** Default array length at which the parallel path takes over. */
+   public static final int DEFAULT_THRESHOLD = 1 << 20;
+
+   /** Arrays shorter than this use the sequential Selector methods. */
+   private static volatile int threshold = DEFAULT_THRESHOLD;
+
+   /** Reduction kinds understood by Reduce. */
+   private static final int MIN = 0;
+   private static final int MAX = 1;
+   private static final int FLOOR_CEILING = 2;
+   private static final int COUNT = 3;
+
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ParallelSelector() { }
+
+
+   /**
+    * Returns the array length at which the methods in this class stop
+    * delegating to Selector and run in parallel.
+    */
+   public static int getThreshold() {
+      return threshold;
+   }
+
+
+   /**
+    * Sets the array length at which the methods in this class stop
+    * delegating to Selector and run in parallel. This method throws
+    * IllegalArgumentException if threshold is less than 1.
+    */
+   public static void setThreshold(int threshold)throws IllegalArgumentException {
+      if (threshold < 1) {
+         throw new IllegalArgumentException();
+      }
+      ParallelSelector.threshold = threshold;
+   }
+
+
+   /**
+    * Selects the minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static int min(int[] a)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.min(a);
+      }
+      return (int) reduce(MIN, a, 0, a.length, 0, 0);
+   }
+
+
+   /**
+    * Selects the maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null or has zero
+    * length. The array a is not changed by this method.
+    */
+   public static int max(int[] a)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.max(a);
+      }
+      return (int) reduce(MAX, a, 0, a.length, 0, 0);
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth minimum value. Note that there is no kth
+    * minimum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static int kmin(int[] a, int k)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.kmin(a, k);
+      }
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      int[] s = new int[a.length];
+      Arrays.parallelSetAll(s, i -> a[i]);
+      return distinctSelect(s, new int[a.length], k);
+   }
+
+
+   /**
+    * Selects the kth maximum value from the array a. This method
+    * throws IllegalArgumentException if a is null, has zero length,
+    * or if there is no kth maximum value. Note that there is no kth
+    * maximum value if k < 1, k > a.length, or if k is larger than
+    * the number of distinct values in the array. The array a is not
+    * changed by this method.
+    */
+   public static int kmax(int[] a, int k)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.kmax(a, k);
+      }
+      if (k < 1 || k > a.length) {
+         throw new IllegalArgumentException();
+      }
+      int[] s = new int[a.length];
+      Arrays.parallelSetAll(s, i -> ~a[i]);
+      return ~distinctSelect(s, new int[a.length], k);
+   }
+
+
+   /**
+    * Returns an array containing all the values in a in the
+    * range [low..high], in the order they appear in a, including
+    * duplicate values. If there are no qualifying values, this method
+    * returns a zero-length array. Blocks of a are counted in parallel,
+    * the counts become output offsets, and the blocks then copy their
+    * matches in parallel. This method throws an
+    * IllegalArgumentException if a is null or has zero length.
+    * The array a is not changed by this method.
+    */
+   public static int[] range(int[] a, int low, int high)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.range(a, low, high);
+      }
+      if (low > high) {
+         return new int[0];
+      }
+      int[] b = new int[(int) reduce(COUNT, a, 0, a.length, low, high)];
+      filter(a, 0, a.length, low, high, b, 0);
+      return b;
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static int ceiling(int[] a, int key)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.ceiling(a, key);
+      }
+      int ceiling = (int) reduce(FLOOR_CEILING, a, 0, a.length, key, 0);
+      if (ceiling == Integer.MAX_VALUE
+            && reduce(COUNT, a, 0, a.length, Integer.MAX_VALUE, Integer.MAX_VALUE) == 0) {
+         throw new IllegalArgumentException();
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to
+    * the given key. This method throws an IllegalArgumentException if
+    * a is null or has zero length, or if there is no qualifying
+    * value. Note that key does not have to be an actual value in a.
+    * The array a is not changed by this method.
+    */
+   public static int floor(int[] a, int key)throws IllegalArgumentException {
+      if (a == null || a.length < threshold) {
+         return Selector.floor(a, key);
+      }
+      int floor = (int) (reduce(FLOOR_CEILING, a, 0, a.length, key, 0) >> 32);
+      if (floor == Integer.MIN_VALUE
+            && reduce(COUNT, a, 0, a.length, Integer.MIN_VALUE, Integer.MIN_VALUE) == 0) {
+         throw new IllegalArgumentException();
+      }
+      return floor;
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value in s, overwriting s and
+    * using t as a second buffer of the same length.
+    */
+   private static int distinctSelect(int[] s, int[] t, int k) {
+      if (distinctSort(s, t, 0, s.length, k) < k) {
+         throw new IllegalArgumentException();
+      }
+      return s[k - 1];
+   }
+
+
+   /**
+    * The parallel counterpart of Selector.distinctSort, with the same
+    * contract, pivot rule and O(n log k) cost: select a pivot p near
+    * rank k in the first rounds and at the median after them, drop every
+    * copy of p, solve the values below p recursively, and continue above
+    * p if they were not enough. The selection and both filters run in
+    * parallel from s into t. Once k is a large fraction of the live
+    * range, a range at or above the threshold is sorted in parallel and
+    * deduped; smaller ranges are finished by Selector.distinctSort.
+    */
+   private static int distinctSort(int[] s, int[] t, int lo, int hi, int k) {
+      int start = lo;
+      int out = lo;
+      int guess = k;
+      for (int round = 0; k > 0 && hi - lo >= threshold
+            && k < (hi - lo) / Selector.SORT_FRACTION; round++) {
+         int half = (hi - lo) >>> 1;
+         int r = lo + (round < Selector.RANK_ROUNDS ? Math.min(guess - 1, half) : half);
+         select(s, t, lo, hi, r);
+         int p = s[r];
+         int less = p == Integer.MIN_VALUE ? 0
+            : filter(s, lo, r, Integer.MIN_VALUE, p - 1, t, lo);
+         System.arraycopy(t, lo, s, lo, less);
+         int c = distinctSort(s, t, lo, lo + less, k);
+         System.arraycopy(s, lo, s, out, c);
+         out += c;
+         k -= c;
+         if (k == 0) {
+            break;
+         }
+         s[out++] = p;
+         k--;
+         int greater = p == Integer.MAX_VALUE ? 0
+            : filter(s, r + 1, hi, p + 1, Integer.MAX_VALUE, t, r + 1);
+         System.arraycopy(t, r + 1, s, r + 1, greater);
+         guess = (int) Math.min(Integer.MAX_VALUE, (long) k * (hi - lo - greater) / (c + 1) + 1);
+         lo = r + 1;
+         hi = r + 1 + greater;
+      }
+      if (k > 0 && hi - lo >= threshold) {
+         Arrays.parallelSort(s, lo, hi);
+         int prev = s[lo];
+         s[out++] = prev;
+         k--;
+         for (int i = lo + 1; i < hi && k > 0; i++) {
+            if (s[i] != prev) {
+               prev = s[i];
+               s[out++] = prev;
+               k--;
+            }
+         }
+      }
+      else if (k > 0 && lo < hi) {
+         int c = Selector.distinctSort(s, lo, hi, k);
+         System.arraycopy(s, lo, s, out, c);
+         out += c;
+      }
+      return out - start;
+   }
+
+
+   /**
+    * Rearranges s[lo..hi) so that s[r] holds its sorted value with no
+    * larger element before it and no smaller one after it. Each round
+    * partitions the live range three ways around a sampled pivot,
+    * in parallel, from one buffer into the other; the parts that fall
+    * away are copied back into s. Once the live range is below the
+    * threshold it is finished by the sequential Selector engine.
+    */
+   private static void select(int[] s, int[] t, int lo, int hi, int r) {
+      int[] src = s;
+      int[] dst = t;
+      while (hi - lo >= threshold) {
+         int p = samplePivot(src, lo, hi);
+         int blocks = blockCount(hi - lo);
+         int[] lt = new int[blocks];
+         int[] eq = new int[blocks];
+         ForkJoinPool.commonPool().invoke(
+            new Partition(src, dst, lo, hi, p, lt, eq, 0, 0, 0, blocks, false));
+         int ltTotal = 0;
+         int eqTotal = 0;
+         for (int b = 0; b < blocks; b++) {
+            int l = lt[b];
+            int e = eq[b];
+            lt[b] = ltTotal;
+            eq[b] = eqTotal;
+            ltTotal += l;
+            eqTotal += e;
+         }
+         ForkJoinPool.commonPool().invoke(
+            new Partition(src, dst, lo, hi, p, lt, eq, ltTotal, eqTotal, 0, blocks, true));
+
+         int lt0 = lo + ltTotal;
+         int gt0 = lt0 + eqTotal;
+         int newLo = lo;
+         int newHi = hi;
+         if (r < lt0) {
+            newHi = lt0;
+         }
+         else if (r >= gt0) {
+            newLo = gt0;
+         }
+         else {
+            newLo = r;
+            newHi = r;
+         }
+         if (dst != s) {
+            System.arraycopy(dst, lo, s, lo, newLo - lo);
+            System.arraycopy(dst, newHi, s, newHi, hi - newHi);
+         }
+         if (newLo == newHi) {
+            return;
+         }
+         lo = newLo;
+         hi = newHi;
+         int[] swap = src;
+         src = dst;
+         dst = swap;
+      }
+      if (src != s) {
+         System.arraycopy(src, lo, s, lo, hi - lo);
+      }
+      Selector.select(s, lo, hi, r);
+   }
+
+
+   /**
+    * Returns the median of 31 evenly spaced elements of a[lo..hi).
+    */
+   private static int samplePivot(int[] a, int lo, int hi) {
+      int[] sample = new int[31];
+      long step = (hi - lo) / sample.length;
+      for (int i = 0; i < sample.length; i++) {
+         sample[i] = a[(int) (lo + i * step)];
+      }
+      Arrays.sort(sample);
+      return sample[sample.length / 2];
+   }
+
+
+   /**
+    * Copies the values of a[lo..hi) within [low..high] into dest from
+    * index destLo, preserving their order, and returns how many were
+    * copied. The copy is a two-phase count-then-scatter over blocks.
+    */
+   private static int filter(int[] a, int lo, int hi, int low, int high, int[] dest, int destLo) {
+      if (lo >= hi) {
+         return 0;
+      }
+      int blocks = blockCount(hi - lo);
+      int[] offsets = new int[blocks];
+      ForkJoinPool.commonPool().invoke(
+         new Filter(a, lo, hi, low, high, offsets, dest, 0, blocks, false));
+      int total = destLo;
+      for (int b = 0; b < blocks; b++) {
+         int count = offsets[b];
+         offsets[b] = total;
+         total += count;
+      }
+      ForkJoinPool.commonPool().invoke(
+         new Filter(a, lo, hi, low, high, offsets, dest, 0, blocks, true));
+      return total - destLo;
+   }
+
+
+   /**
+    * Returns the number of elements in each block of the parallel tasks.
+    */
+   private static int blockSize(int n) {
+      int parts = ForkJoinPool.getCommonPoolParallelism() * 8;
+      return Math.max(1 << 14, (n + parts - 1) / parts);
+   }
+
+
+   /**
+    * Returns the number of blocks a range of n elements is cut into.
+    */
+   private static int blockCount(int n) {
+      int size = blockSize(n);
+      return (n + size - 1) / size;
+   }
+
+
+   /**
+    * Runs the reduction op over a[lo..hi) on the common pool.
+    */
+   private static long reduce(int op, int[] a, int lo, int hi, int p, int q) {
+      return ForkJoinPool.commonPool().invoke(new Reduce(op, a, lo, hi, p, q, blockSize(hi - lo)));
+   }
+
+
+   /**
+    * Fork-join reduction over a slice of an array. The meaning of the
+    * parameters p and q depends on op: FLOOR_CEILING takes the key in p
+    * and yields floor and ceiling packed as in Selector; COUNT counts
+    * values in [p..q].
+    */
+   private static final class Reduce extends RecursiveTask<Long> {
+
+      private static final long serialVersionUID = 1L;
+
+      private final int op;
+      private final int[] a;
+      private final int lo;
+      private final int hi;
+      private final int p;
+      private final int q;
+      private final int leaf;
+
+      Reduce(int op, int[] a, int lo, int hi, int p, int q, int leaf) {
+         this.op = op;
+         this.a = a;
+         this.lo = lo;
+         this.hi = hi;
+         this.p = p;
+         this.q = q;
+         this.leaf = leaf;
+      }
+
+      @Override
+      protected Long compute() {
+         if (hi - lo <= leaf) {
+            return leaf();
+         }
+         int mid = (lo + hi) >>> 1;
+         Reduce left = new Reduce(op, a, lo, mid, p, q, leaf);
+         left.fork();
+         long right = new Reduce(op, a, mid, hi, p, q, leaf).compute();
+         return combine(left.join(), right);
+      }
+
+      private long combine(long x, long y) {
+         switch (op) {
+            case MIN:
+               return Math.min(x, y);
+            case MAX:
+               return Math.max(x, y);
+            case FLOOR_CEILING:
+               return pack(Math.max((int) (x >> 32), (int) (y >> 32)), Math.min((int) x, (int) y));
+            default:
+               return x + y;
+         }
+      }
+
+      private long leaf() {
+         switch (op) {
+            case MIN: {
+               int min = a[lo];
+               for (int i = lo + 1; i < hi; i++) {
+                  min = Math.min(min, a[i]);
+               }
+               return min;
+            }
+            case MAX: {
+               int max = a[lo];
+               for (int i = lo + 1; i < hi; i++) {
+                  max = Math.max(max, a[i]);
+               }
+               return max;
+            }
+            case FLOOR_CEILING: {
+               int floor = Integer.MIN_VALUE;
+               int ceiling = Integer.MAX_VALUE;
+               for (int i = lo; i < hi; i++) {
+                  floor = Math.max(floor, a[i] <= p ? a[i] : Integer.MIN_VALUE);
+                  ceiling = Math.min(ceiling, a[i] >= p ? a[i] : Integer.MAX_VALUE);
+               }
+               return pack(floor, ceiling);
+            }
+            default: {
+               int span = q - p;
+               long count = 0;
+               for (int i = lo; i < hi; i++) {
+                  if (Integer.compareUnsigned(a[i] - p, span) <= 0) {
+                     count++;
+                  }
+               }
+               return count;
+            }
+         }
+      }
+
+      private static long pack(int hi, int lo) {
+         return ((long) hi << 32) | (lo & 0xFFFFFFFFL);
+      }
+   }
+
+
+   /**
+    * One phase of the block-wise order-preserving filter. Counting
+    * stores each block's match count in offsets; scattering reads each
+    * block's starting output index from offsets.
+    */
+   private static final class Filter extends RecursiveAction {
+
+      private static final long serialVersionUID = 1L;
+
+      private final int[] a;
+      private final int lo;
+      private final int hi;
+      private final int low;
+      private final int high;
+      private final int[] offsets;
+      private final int[] dest;
+      private final int first;
+      private final int last;
+      private final boolean scatter;
+
+      Filter(int[] a, int lo, int hi, int low, int high, int[] offsets, int[] dest,
+            int first, int last, boolean scatter) {
+         this.a = a;
+         this.lo = lo;
+         this.hi = hi;
+         this.low = low;
+         this.high = high;
+         this.offsets = offsets;
+         this.dest = dest;
+         this.first = first;
+         this.last = last;
+         this.scatter = scatter;
+      }
+
+      @Override
+      protected void compute() {
+         if (last - first > 1) {
+            int mid = (first + last) >>> 1;
+            invokeAll(new Filter(a, lo, hi, low, high, offsets, dest, first, mid, scatter),
+               new Filter(a, lo, hi, low, high, offsets, dest, mid, last, scatter));
+            return;
+         }
+         int size = blockSize(hi - lo);
+         int from = lo + first * size;
+         int to = Math.min(hi, from + size);
+         int span = high - low;
+         if (scatter) {
+            int j = offsets[first];
+            for (int i = from; i < to; i++) {
+               if (Integer.compareUnsigned(a[i] - low, span) <= 0) {
+                  dest[j++] = a[i];
+               }
+            }
+         }
+         else {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+               if (Integer.compareUnsigned(a[i] - low, span) <= 0) {
+                  count++;
+               }
+            }
+            offsets[first] = count;
+         }
+      }
+   }
+
+
+   /**
+    * One phase of the block-wise three-way partition of src[lo..hi)
+    * into dst[lo..hi) around pivot p. Counting stores each block's
+    * number of smaller and equal elements in lt and eq; scattering
+    * reads each block's offsets within the smaller and equal sections
+    * from lt and eq and derives its offset among the larger ones from
+    * the section totals.
+    */
+   private static final class Partition extends RecursiveAction {
+
+      private static final long serialVersionUID = 1L;
+
+      private final int[] src;
+      private final int[] dst;
+      private final int lo;
+      private final int hi;
+      private final int p;
+      private final int[] lt;
+      private final int[] eq;
+      private final int ltTotal;
+      private final int eqTotal;
+      private final int first;
+      private final int last;
+      private final boolean scatter;
+
+      Partition(int[] src, int[] dst, int lo, int hi, int p, int[] lt, int[] eq,
+            int ltTotal, int eqTotal, int first, int last, boolean scatter) {
+         this.src = src;
+         this.dst = dst;
+         this.lo = lo;
+         this.hi = hi;
+         this.p = p;
+         this.lt = lt;
+         this.eq = eq;
+         this.ltTotal = ltTotal;
+         this.eqTotal = eqTotal;
+         this.first = first;
+         this.last = last;
+         this.scatter = scatter;
+      }
+
+      @Override
+      protected void compute() {
+         if (last - first > 1) {
+            int mid = (first + last) >>> 1;
+            invokeAll(new Partition(src, dst, lo, hi, p, lt, eq, ltTotal, eqTotal, first, mid, scatter),
+               new Partition(src, dst, lo, hi, p, lt, eq, ltTotal, eqTotal, mid, last, scatter));
+            return;
+         }
+         int size = blockSize(hi - lo);
+         int from = lo + first * size;
+         int to = Math.min(hi, from + size);
+         if (!scatter) {
+            int less = 0;
+            int equal = 0;
+            for (int i = from; i < to; i++) {
+               less += src[i] < p ? 1 : 0;
+               equal += src[i] == p ? 1 : 0;
+            }
+            lt[first] = less;
+            eq[first] = equal;
+            return;
+         }
+         int l = lo + lt[first];
+         int e = lo + ltTotal + eq[first];
+         int g = lo + ltTotal + eqTotal + (from - lo) - lt[first] - eq[first];
+         for (int i = from; i < to; i++) {
+            int v = src[i];
+            if (v < p) {
+               dst[l++] = v;
+            }
+            else if (v == p) {
+               dst[e++] = v;
+            }
+            else {
+               dst[g++] = v;
+            }
+         }
+      }
+   }
+
+}
@@ -1,14 +1,24 @@
 import java.util.Arrays;
 
-import sun.security.krb5.internal.KRBError;
-
 import java.lang.*;
 import java.util.*;
+import java.util.function.IntConsumer;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
 
 /**
 * Defines a library of selection methods
 * on arrays of ints.
 *
+* The linear scans (min, max, range, floor, ceiling) use SIMD lanes
+* from the incubating Vector API when the jdk.incubator.vector module
+* is present at run time, and plain loops otherwise. Compile with
+* --add-modules jdk.incubator.vector; run with the same flag to get
+* the vector path.
+*
 * @author   Michael Johnson (mdj0025@auburn.edu)
 * @author   Dean Hendrix (dh@auburn.edu)
 * @version  2018-01-15
@@ -26,15 +36,23 @@ public final class Selector {
    private Selector() { }
 
 
+   /** True if the Vector API is available to the scans in this class. */
+   private static final boolean VECTORIZE =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+
    /**
     * Selects the minimum value from the array a. This method
     * throws IllegalArgumentException if a is null or has zero
     * length. The array a is not changed by this method.
     */
    public static int min(int[] a)throws IllegalArgumentException{
-      if(a.length == 0 || a == null) {
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
+      if (VECTORIZE) {
+         return Lanes.min(a);
+      }
       int min = a[0];
       for(int i = 0; i < a.length; i++){
          if(a[i] < min){
@@ -51,8 +69,12 @@ public final class Selector {
     * length. The array a is not changed by this method.
     */
    public static int max(int[] a)throws IllegalArgumentException {
-      if(a.length == 0 || a == null)
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
+      }
+      if (VECTORIZE) {
+         return Lanes.max(a);
+      }
       int max = a[0];
       for(int i = 0; i < a.length; i++){
          if (a[i] > max){
@@ -72,22 +94,25 @@ public final class Selector {
     * changed by this method.
     */
    public static int kmin(int[] a, int k)throws IllegalArgumentException {
-      if(a.length == 0 || a == null){
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
-      else if(k < 1 || k > a.length){
-         throw new IllegalArgumentException();
-      }
-      for (int i = 0; i < a.length; i++){
-         for(int j = i + 1; j < a.length; j++){
-            if(a[j] < a[i]){
-               int right = a[i];
-               a[i] = a[j];
-               a[j] = right;
-            }
-         }
-      }
-      return a[k-1];
+      return kmin(a, k, new int[a.length]);
+   }
+
+
+   /**
+    * Selects the kth minimum value from the array a exactly as
+    * kmin(a, k) does, but uses scratch as working storage instead of
+    * allocating a copy of a. The contents of scratch are overwritten.
+    * This method throws IllegalArgumentException if a is null, has
+    * zero length, if there is no kth minimum value, or if scratch is
+    * null or shorter than a. The array a is not changed by this method.
+    */
+   public static int kmin(int[] a, int k, int[] scratch)throws IllegalArgumentException {
+      checkSelect(a, k, scratch);
+      System.arraycopy(a, 0, scratch, 0, a.length);
+      return distinctSelect(scratch, 0, a.length, k);
    }
 
 
@@ -99,25 +124,380 @@ public final class Selector {
     * the number of distinct values in the array. The array a is not
     * changed by this method.
     */
-   public static int kmax(int[] a, int k) {
-      if(a.length == 0 || a == null){
+   public static int kmax(int[] a, int k)throws IllegalArgumentException {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return kmax(a, k, new int[a.length]);
+   }
+
+
+   /**
+    * Selects the kth maximum value from the array a exactly as
+    * kmax(a, k) does, but uses scratch as working storage instead of
+    * allocating a copy of a. The contents of scratch are overwritten.
+    * This method throws IllegalArgumentException if a is null, has
+    * zero length, if there is no kth maximum value, or if scratch is
+    * null or shorter than a. The array a is not changed by this method.
+    */
+   public static int kmax(int[] a, int k, int[] scratch)throws IllegalArgumentException {
+      checkSelect(a, k, scratch);
+      // ~v reverses the order of ints, so the kth maximum of a is the
+      // complement of the kth minimum of the complemented values.
+      for (int i = 0; i < a.length; i++) {
+         scratch[i] = ~a[i];
+      }
+      return ~distinctSelect(scratch, 0, a.length, k);
+   }
+
+
+   /**
+    * Returns an array whose ith element is kmin(a, ks[i]). All of the
+    * requested values are found in one pass over a copy of a, so asking
+    * for many ranks costs little more than asking for the largest one.
+    * This method throws IllegalArgumentException if a or ks is null, if
+    * a has zero length, or if any ks[i] has no kth minimum value. The
+    * arrays a and ks are not changed by this method.
+    */
+   public static int[] kmin(int[] a, int[] ks)throws IllegalArgumentException {
+      if (a == null || a.length == 0 || ks == null) {
+         throw new IllegalArgumentException();
+      }
+      int[] result = new int[ks.length];
+      if (ks.length > 0) {
+         distinctSelectAll(Arrays.copyOf(a, a.length), a.length, ks, result);
+      }
+      return result;
+   }
+
+
+   /**
+    * Returns an array whose ith element is kmax(a, ks[i]). All of the
+    * requested values are found in one pass over a copy of a, so asking
+    * for many ranks costs little more than asking for the largest one.
+    * This method throws IllegalArgumentException if a or ks is null, if
+    * a has zero length, or if any ks[i] has no kth maximum value. The
+    * arrays a and ks are not changed by this method.
+    */
+   public static int[] kmax(int[] a, int[] ks)throws IllegalArgumentException {
+      if (a == null || a.length == 0 || ks == null) {
+         throw new IllegalArgumentException();
+      }
+      int[] result = new int[ks.length];
+      if (ks.length > 0) {
+         int[] b = new int[a.length];
+         for (int i = 0; i < a.length; i++) {
+            b[i] = ~a[i];
+         }
+         distinctSelectAll(b, a.length, ks, result);
+         for (int i = 0; i < result.length; i++) {
+            result[i] = ~result[i];
+         }
+      }
+      return result;
+   }
+
+
+   /**
+    * Returns an array whose ith element is the value that would be at
+    * position ranks[i] (counting from 1) if a were sorted in ascending
+    * order. Unlike kmin, duplicate values each occupy their own rank,
+    * which is what percentiles need: for n values the p99 is at rank
+    * ceil(0.99 * n). The m requested ranks are found by one recursive
+    * multi-select over a copy of a in O(n log m) time. This method
+    * throws IllegalArgumentException if a or ranks is null, if a has
+    * zero length, or if any rank is less than 1 or greater than
+    * a.length. The arrays a and ranks are not changed by this method.
+    */
+   public static int[] orderStatistics(int[] a, int[] ranks)throws IllegalArgumentException {
+      if (a == null || a.length == 0 || ranks == null) {
+         throw new IllegalArgumentException();
+      }
+      int[] sorted = Arrays.copyOf(ranks, ranks.length);
+      Arrays.sort(sorted);
+      int m = 0;
+      for (int r : sorted) {
+         if (r < 1 || r > a.length) {
+            throw new IllegalArgumentException();
+         }
+         if (m == 0 || sorted[m - 1] != r) {
+            sorted[m++] = r;
+         }
+      }
+      int[] b = Arrays.copyOf(a, a.length);
+      multiSelect(b, 0, b.length, sorted, 0, m);
+      int[] result = new int[ranks.length];
+      for (int i = 0; i < ranks.length; i++) {
+         result[i] = b[ranks[i] - 1];
+      }
+      return result;
+   }
+
+
+   /** Size at or below which a partition is finished by insertion sort. */
+   private static final int INSERTION_CUTOFF = 16;
+
+   /** distinctSort sorts a range once k is at least 1 / SORT_FRACTION of it. */
+   static final int SORT_FRACTION = 4;
+
+   /** Rounds in which distinctSort pivots near rank k rather than the median. */
+   static final int RANK_ROUNDS = 2;
+
+
+   /**
+    * Validates the arguments shared by every kmin and kmax variant.
+    */
+   private static void checkSelect(int[] a, int k, int[] scratch) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      if (k < 1 || k > a.length) {
          throw new IllegalArgumentException();
       }
-      else if(k < 1 || k > a.length){
+      if (scratch == null || scratch.length < a.length) {
          throw new IllegalArgumentException();
       }
-      //while i < length we want to compare the element at index j to index of i
-      // if index of j is less than i then we want to swap the two and then keep swapping to the left
-      for (int i = 0; i < a.length; i++){
-         for(int j = i + 1; j < a.length; j++){
-            if(a[j] < a[i]){
-               int right = a[i];
-               a[i] = a[j];
-               a[j] = right;
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value in a[lo..hi), overwriting
+    * that part of a. Throws IllegalArgumentException if there are fewer
+    * than k distinct values.
+    */
+   static int distinctSelect(int[] a, int lo, int hi, int k) {
+      return a[distinctPrefix(a, lo, hi, k) - 1];
+   }
+
+
+   /**
+    * Overwrites a[lo..hi) so that a[lo..lo + k) holds the k smallest
+    * distinct values of that range in ascending order, and returns
+    * lo + k. Throws IllegalArgumentException if there are fewer than k
+    * distinct values.
+    */
+   static int distinctPrefix(int[] a, int lo, int hi, int k) {
+      if (distinctSort(a, lo, hi, k) < k) {
+         throw new IllegalArgumentException();
+      }
+      return lo + k;
+   }
+
+
+   /**
+    * Moves the c smallest distinct values of a[lo..hi) to a[lo..lo + c)
+    * in ascending order, where c is k or the number of distinct values
+    * in the range if that is smaller, and returns c. The rest of the
+    * range is overwritten.
+    *
+    * Each round selects a pivot p in the live range, which leaves the
+    * elements below p before it and those above p after it, and drops
+    * every copy of p. The values below p are solved recursively; if
+    * they give fewer than k distinct values, p is the next one and the
+    * round repeats on the values above p. The first RANK_ROUNDS rounds
+    * pivot at rank k, scaled by the number of elements per distinct
+    * value seen so far, so when values are mostly distinct a small k
+    * costs one O(n) pass and a sort of about k elements. Later rounds
+    * pivot at the median: both parts are then at most half the range,
+    * every copy of a value is discarded the first time that value is a
+    * pivot, and at most k + 1 disjoint ranges are live at any depth, so
+    * the cost is O(n) per level for the first log k levels and then
+    * falls geometrically: O(n log k) in all, which is O(n) for any fixed
+    * k however many duplicates a holds. Once k is at least 1 /
+    * SORT_FRACTION of the live range, the range is sorted and deduped
+    * instead, which is cheaper than further rounds. Nothing is
+    * allocated.
+    */
+   static int distinctSort(int[] a, int lo, int hi, int k) {
+      int start = lo;
+      int out = lo;
+      int guess = k;
+      for (int round = 0; k > 0 && hi - lo > INSERTION_CUTOFF
+            && k < (hi - lo) / SORT_FRACTION; round++) {
+         int half = (hi - lo) >>> 1;
+         int r = lo + (round < RANK_ROUNDS ? Math.min(guess - 1, half) : half);
+         select(a, lo, hi, r);
+         int p = a[r];
+         int lt = lo;
+         for (int i = lo; i < r; i++) {
+            if (a[i] < p) {
+               a[lt++] = a[i];
             }
          }
+         int gt = hi;
+         for (int i = hi - 1; i > r; i--) {
+            if (a[i] > p) {
+               a[--gt] = a[i];
+            }
+         }
+         int c = distinctSort(a, lo, lt, k);
+         System.arraycopy(a, lo, a, out, c);
+         out += c;
+         k -= c;
+         if (k == 0) {
+            break;
+         }
+         a[out++] = p;
+         k--;
+         guess = (int) Math.min(Integer.MAX_VALUE, (long) k * (gt - lo) / (c + 1) + 1);
+         lo = gt;
+      }
+      if (k > 0 && lo < hi) {
+         Arrays.sort(a, lo, hi);
+         int prev = a[lo];
+         a[out++] = prev;
+         k--;
+         for (int i = lo + 1; i < hi && k > 0; i++) {
+            if (a[i] != prev) {
+               prev = a[i];
+               a[out++] = prev;
+               k--;
+            }
+         }
+      }
+      return out - start;
+   }
+
+
+   /**
+    * Fills result[i] with the ks[i]th smallest distinct value of
+    * a[0..n), overwriting a. The distinct prefix for the largest
+    * requested rank is built once and then indexed.
+    */
+   private static void distinctSelectAll(int[] a, int n, int[] ks, int[] result) {
+      int kmax = 0;
+      for (int k : ks) {
+         if (k < 1 || k > n) {
+            throw new IllegalArgumentException();
+         }
+         kmax = Math.max(kmax, k);
+      }
+      distinctPrefix(a, 0, n, kmax);
+      for (int i = 0; i < ks.length; i++) {
+         result[i] = a[ks[i] - 1];
+      }
+   }
+
+
+   /**
+    * Rearranges a[lo..hi) so that a[r - 1] is in its sorted position for
+    * every rank r in ranks[rlo..rhi), which must be sorted, distinct and
+    * within the range. Selecting the middle rank first splits both the
+    * array and the rank list, so m ranks cost O(n log m).
+    */
+   private static void multiSelect(int[] a, int lo, int hi, int[] ranks, int rlo, int rhi) {
+      while (rlo < rhi) {
+         int mid = (rlo + rhi) >>> 1;
+         int r = ranks[mid] - 1;
+         select(a, lo, hi, r);
+         if (mid - rlo < rhi - mid - 1) {
+            multiSelect(a, lo, r, ranks, rlo, mid);
+            lo = r + 1;
+            rlo = mid + 1;
+         }
+         else {
+            multiSelect(a, r + 1, hi, ranks, mid + 1, rhi);
+            hi = r;
+            rhi = mid;
+         }
+      }
+   }
+
+
+   /**
+    * Rearranges a[lo..hi) so that a[r] holds the value it would have if
+    * that range were sorted, every element before r is no greater and
+    * every element after r is no smaller. Quickselect with a median of
+    * three pivot is used until the range stops halving every two rounds,
+    * after which median-of-medians pivots guarantee O(n) time.
+    */
+   static void select(int[] a, int lo, int hi, int r) {
+      hi--;
+      boolean guaranteed = false;
+      int rounds = 0;
+      int checkpoint = hi - lo + 1;
+      while (hi - lo >= INSERTION_CUTOFF) {
+         if (!guaranteed && ++rounds % 2 == 0) {
+            int size = hi - lo + 1;
+            guaranteed = size > checkpoint / 2;
+            checkpoint = size;
+         }
+         int p = guaranteed ? medianOfMedians(a, lo, hi)
+            : medianOf3(a[lo], a[(lo + hi) >>> 1], a[hi]);
+
+         // three-way partition: [lo, lt) < p, [lt, gt] == p, (gt, hi] > p
+         int lt = lo;
+         int gt = hi;
+         int i = lo;
+         while (i <= gt) {
+            int v = a[i];
+            if (v < p) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            }
+            else if (v > p) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            }
+            else {
+               i++;
+            }
+         }
+         if (r < lt) {
+            hi = lt - 1;
+         }
+         else if (r > gt) {
+            lo = gt + 1;
+         }
+         else {
+            return;
+         }
+      }
+      insertionSort(a, lo, hi);
+   }
+
+
+   /**
+    * Returns the median of the medians of groups of five in a[lo..hi],
+    * moving the group medians to the front of the range.
+    */
+   private static int medianOfMedians(int[] a, int lo, int hi) {
+      int m = lo;
+      for (int g = lo; g <= hi; g += 5) {
+         int end = Math.min(g + 4, hi);
+         insertionSort(a, g, end);
+         int mid = (g + end) >>> 1;
+         int t = a[mid];
+         a[mid] = a[m];
+         a[m++] = t;
+      }
+      int r = (lo + m - 1) >>> 1;
+      select(a, lo, m, r);
+      return a[r];
+   }
+
+
+   /**
+    * Returns the median of three values.
+    */
+   private static int medianOf3(int x, int y, int z) {
+      return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+   }
+
+
+   /**
+    * Sorts a[lo..hi] in place.
+    */
+   private static void insertionSort(int[] a, int lo, int hi) {
+      for (int i = lo + 1; i <= hi; i++) {
+         int v = a[i];
+         int j = i - 1;
+         while (j >= lo && a[j] > v) {
+            a[j + 1] = a[j];
+            j--;
+         }
+         a[j + 1] = v;
       }
-      return a[a.length - k];
    }
 
 
@@ -134,24 +514,120 @@ public final class Selector {
     * The array a is not changed by this method.
     */
    public static int[] range(int[] a, int low, int high)throws IllegalArgumentException {
-      if(a.length == 0 || a == null){
+      int[] b = new int[rangeCount(a, low, high)];
+      range(a, low, high, b);
+      return b;
+   }
+
+
+   /**
+    * Copies every value in a in the range [low..high], including
+    * duplicate values and in the order they appear in a, into dest
+    * starting at index 0, and returns how many were copied. The rest of
+    * dest is left as it was, and nothing is allocated. A dest at least
+    * as long as a is always big enough. This method throws an
+    * IllegalArgumentException if a is null or has zero length, or if
+    * dest is null or too short to hold every qualifying value, in which
+    * case dest may have been partly written. The array a is not changed
+    * by this method.
+    */
+   public static int range(int[] a, int low, int high, int[] dest)throws IllegalArgumentException {
+      if (a == null || a.length == 0 || dest == null) {
          throw new IllegalArgumentException();
       }
-      int k = 0;
-      for(int i = 0; i < a.length; i++){
-         if(a[i] > low && a[i] < high){
-            k++;
-         }
+      if (low > high) {
+         return 0;
+      }
+      if (VECTORIZE) {
+         return Lanes.scatter(a, low, high, dest);
       }
-      int [] b = new int[k];
+      int span = high - low;
       int j = 0;
-      for(int i = 0; i < a.length; i++){
-         if(a[i] > low && a[i] < high){
-            b[j] = a[i];
-            j++;
+      if (dest.length >= a.length) {
+         // every value is written and the cursor only advances past
+         // matches, so there is no branch on the data; saved keeps the
+         // original value of dest[j], which is put back at the end
+         int last = dest.length - 1;
+         int saved = dest[0];
+         for (int var : a) {
+            dest[j] = var;
+            int step = Integer.compareUnsigned(var - low, span) <= 0 ? 1 : 0;
+            j += step;
+            int next = dest[Math.min(j, last)];
+            saved ^= (saved ^ next) & -step;
+         }
+         if (j < dest.length) {
+            dest[j] = saved;
          }
+         return j;
       }
-      return b;
+      for (int var : a) {
+         if (Integer.compareUnsigned(var - low, span) <= 0) {
+            if (j == dest.length) {
+               throw new IllegalArgumentException();
+            }
+            dest[j++] = var;
+         }
+      }
+      return j;
+   }
+
+
+   /**
+    * Passes every value in a in the range [low..high], including
+    * duplicate values and in the order they appear in a, to sink, and
+    * returns how many were passed. Nothing is allocated. This method
+    * throws an IllegalArgumentException if a is null or has zero
+    * length, or if sink is null. The array a is not changed by this
+    * method.
+    */
+   public static int range(int[] a, int low, int high, IntConsumer sink)throws IllegalArgumentException {
+      if (a == null || a.length == 0 || sink == null) {
+         throw new IllegalArgumentException();
+      }
+      if (low > high) {
+         return 0;
+      }
+      if (VECTORIZE) {
+         return Lanes.forEach(a, low, high, sink);
+      }
+      int span = high - low;
+      int count = 0;
+      for (int var : a) {
+         if (Integer.compareUnsigned(var - low, span) <= 0) {
+            sink.accept(var);
+            count++;
+         }
+      }
+      return count;
+   }
+
+
+   /**
+    * Returns the number of values in a in the range [low..high],
+    * including duplicate values; that is, the length of the array
+    * range(a, low, high) would return. Returns zero if low > high. This
+    * method throws an IllegalArgumentException if a is null or has
+    * zero length. The array a is not changed by this method.
+    */
+   public static int rangeCount(int[] a, int low, int high)throws IllegalArgumentException {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      if (low > high) {
+         return 0;
+      }
+      if (VECTORIZE) {
+         return Lanes.count(a, low, high);
+      }
+      // a[i] is in [low..high] exactly when a[i] - low, read as unsigned,
+      // is at most high - low; one compare instead of two.
+      int span = high - low;
+      int count = 0;
+      for (int var : a) {
+         count += Integer.compareUnsigned(var - low, span) <= 0 ? 1 : 0;
+      }
+      return count;
    }
 
 
@@ -163,19 +639,14 @@ public final class Selector {
     * The array a is not changed by this method.
     */
    public static int ceiling(int[] a, int key)throws IllegalArgumentException {
-      if(a.length == 0 || a == null){
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
-      int start = a[0];
-      for (int var : a) {
-         if(var < start && var >= key){
-            start = var;
-         }
-      }
-      if(start < key){
+      int ceiling = (int) floorCeiling(a, key);
+      if (ceiling == Integer.MAX_VALUE && !contains(a, Integer.MAX_VALUE)) {
          throw new IllegalArgumentException();
       }
-      return start;
+      return ceiling;
    }
 
 
@@ -187,26 +658,225 @@ public final class Selector {
     * The array a is not changed by this method.
     */
    public static int floor(int[] a, int key)throws IllegalArgumentException {
-      if(a.length == 0 || a == null){
+      if (a == null || a.length == 0) {
          throw new IllegalArgumentException();
       }
-      int floor = a[0];
-      for (int var1 : a) {
-         if(var1 > floor && var1 <= key){
-            floor = var1;
-         }
-      }
-      if(floor > key){
+      int floor = (int) (floorCeiling(a, key) >> 32);
+      if (floor == Integer.MIN_VALUE && !contains(a, Integer.MIN_VALUE)) {
          throw new IllegalArgumentException();
       }
       return floor;
    }
 
+
+   /**
+    * Computes floor and ceiling of key in a single pass, returning the
+    * floor in the high 32 bits and the ceiling in the low 32 bits. A
+    * missing floor reads as Integer.MIN_VALUE and a missing ceiling as
+    * Integer.MAX_VALUE, so those two results need a second look.
+    */
+   private static long floorCeiling(int[] a, int key) {
+      if (VECTORIZE) {
+         return Lanes.floorCeiling(a, key);
+      }
+      int floor = Integer.MIN_VALUE;
+      int ceiling = Integer.MAX_VALUE;
+      for (int var : a) {
+         floor = Math.max(floor, var <= key ? var : Integer.MIN_VALUE);
+         ceiling = Math.min(ceiling, var >= key ? var : Integer.MAX_VALUE);
+      }
+      return pack(floor, ceiling);
+   }
+
+
+   /**
+    * Packs two ints into a long, hi in the high 32 bits.
+    */
+   private static long pack(int hi, int lo) {
+      return ((long) hi << 32) | (lo & 0xFFFFFFFFL);
+   }
+
+
+   /**
+    * Returns true if a contains the value key.
+    */
+   private static boolean contains(int[] a, int key) {
+      for (int var : a) {
+         if (var == key) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+
+   /**
+    * Vector API kernels for the linear scans. Kept in a nested class so
+    * that nothing from jdk.incubator.vector is loaded unless VECTORIZE
+    * is true. Each kernel runs whole vectors up to the species loop
+    * bound and finishes the tail with scalar code.
+    */
+   private static final class Lanes {
+
+      private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+      /**
+       * Returns the minimum value in the non-empty array a.
+       */
+      static int min(int[] a) {
+         int bound = SPECIES.loopBound(a.length);
+         int min = a[0];
+         int i = 0;
+         if (bound > 0) {
+            IntVector acc = IntVector.fromArray(SPECIES, a, 0);
+            for (i = SPECIES.length(); i < bound; i += SPECIES.length()) {
+               acc = acc.min(IntVector.fromArray(SPECIES, a, i));
+            }
+            min = acc.reduceLanes(VectorOperators.MIN);
+         }
+         for (; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+         }
+         return min;
+      }
+
+      /**
+       * Returns the maximum value in the non-empty array a.
+       */
+      static int max(int[] a) {
+         int bound = SPECIES.loopBound(a.length);
+         int max = a[0];
+         int i = 0;
+         if (bound > 0) {
+            IntVector acc = IntVector.fromArray(SPECIES, a, 0);
+            for (i = SPECIES.length(); i < bound; i += SPECIES.length()) {
+               acc = acc.max(IntVector.fromArray(SPECIES, a, i));
+            }
+            max = acc.reduceLanes(VectorOperators.MAX);
+         }
+         for (; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+         }
+         return max;
+      }
+
+      /**
+       * Same contract as Selector.floorCeiling. Lanes above key are
+       * blended to MIN_VALUE before the floor's max-reduction and lanes
+       * below key to MAX_VALUE before the ceiling's min-reduction.
+       */
+      static long floorCeiling(int[] a, int key) {
+         int bound = SPECIES.loopBound(a.length);
+         IntVector floor = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+         IntVector ceiling = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+         int i = 0;
+         for (; i < bound; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            floor = floor.max(v.blend(Integer.MIN_VALUE, v.compare(VectorOperators.GT, key)));
+            ceiling = ceiling.min(v.blend(Integer.MAX_VALUE, v.compare(VectorOperators.LT, key)));
+         }
+         int f = floor.reduceLanes(VectorOperators.MAX);
+         int c = ceiling.reduceLanes(VectorOperators.MIN);
+         for (; i < a.length; i++) {
+            f = Math.max(f, a[i] <= key ? a[i] : Integer.MIN_VALUE);
+            c = Math.min(c, a[i] >= key ? a[i] : Integer.MAX_VALUE);
+         }
+         return pack(f, c);
+      }
+
+      /**
+       * Returns a mask of the lanes of v that lie in [low..high], using
+       * one unsigned compare of v - low against high - low.
+       */
+      private static VectorMask<Integer> inRange(IntVector v, int low, int span) {
+         return v.sub(low).compare(VectorOperators.UNSIGNED_LE, span);
+      }
+
+      /**
+       * Returns the number of values in a within [low..high], low <= high.
+       */
+      static int count(int[] a, int low, int high) {
+         int span = high - low;
+         int bound = SPECIES.loopBound(a.length);
+         int count = 0;
+         int i = 0;
+         for (; i < bound; i += SPECIES.length()) {
+            count += inRange(IntVector.fromArray(SPECIES, a, i), low, span).trueCount();
+         }
+         for (; i < a.length; i++) {
+            if (Integer.compareUnsigned(a[i] - low, span) <= 0) {
+               count++;
+            }
+         }
+         return count;
+      }
+
+      /**
+       * Copies the values in a within [low..high], low <= high, into dest
+       * in their original order and returns how many were copied, or
+       * throws IllegalArgumentException if dest runs out of room. The
+       * incubator API in JDK 17 has no compress operation, so the mask
+       * bits drive the scatter directly; whole vectors with no lane in
+       * range cost a single compare.
+       */
+      static int scatter(int[] a, int low, int high, int[] dest) {
+         int span = high - low;
+         int bound = SPECIES.loopBound(a.length);
+         int j = 0;
+         int i = 0;
+         for (; i < bound; i += SPECIES.length()) {
+            long bits = inRange(IntVector.fromArray(SPECIES, a, i), low, span).toLong();
+            if (j + Long.bitCount(bits) > dest.length) {
+               throw new IllegalArgumentException();
+            }
+            while (bits != 0) {
+               dest[j++] = a[i + Long.numberOfTrailingZeros(bits)];
+               bits &= bits - 1;
+            }
+         }
+         for (; i < a.length; i++) {
+            if (Integer.compareUnsigned(a[i] - low, span) <= 0) {
+               if (j == dest.length) {
+                  throw new IllegalArgumentException();
+               }
+               dest[j++] = a[i];
+            }
+         }
+         return j;
+      }
+
+      /**
+       * Passes the values in a within [low..high], low <= high, to sink
+       * in their original order and returns how many were passed.
+       */
+      static int forEach(int[] a, int low, int high, IntConsumer sink) {
+         int span = high - low;
+         int bound = SPECIES.loopBound(a.length);
+         int count = 0;
+         int i = 0;
+         for (; i < bound; i += SPECIES.length()) {
+            long bits = inRange(IntVector.fromArray(SPECIES, a, i), low, span).toLong();
+            count += Long.bitCount(bits);
+            while (bits != 0) {
+               sink.accept(a[i + Long.numberOfTrailingZeros(bits)]);
+               bits &= bits - 1;
+            }
+         }
+         for (; i < a.length; i++) {
+            if (Integer.compareUnsigned(a[i] - low, span) <= 0) {
+               sink.accept(a[i]);
+               count++;
+            }
+         }
+         return count;
+      }
+   }
+
    public static void main(String[] args){
       int[] arr = {32, 51, 11, 0, 10, 32, -5};
       int minimum = min(arr);
       int max = max(arr);
-      int kMin = kmin(arr, 7);
+      int kMin = kmin(arr, 6);
       int kMax = kmax(arr, 3);
       int k = 4;
       int l = 45;
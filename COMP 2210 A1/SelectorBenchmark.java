@@ -0,0 +1,286 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+* A repeatable benchmark harness for Selector. Every public Selector
+* method but main is timed, each overload under its own name, on arrays
+* of 10^2 elements up to 10^maxExponent by powers of ten, drawn from
+* five distributions, in two workloads:
+*
+*    single  - each call reads a different copy of the data, cycling
+*              through copies that together exceed COLD_BYTES, so the
+*              data of a call has usually left the caches since it was
+*              last read;
+*    repeat  - many queries with varying arguments run against one
+*              array, the steady state of a service answering lookups
+*              (SelectorIndex is included here for comparison).
+*
+* The copies are made before timing starts, and no method changes its
+* input, so both workloads time the same work on the same values.
+*
+* For each case it prints throughput, latency percentiles and bytes
+* allocated per operation (from the per-thread allocation counter of
+* com.sun.management.ThreadMXBean, the same source the JMH GC profiler
+* reads). JMH itself is not used because it cannot see classes in the
+* unnamed package and this project has no build to run its annotation
+* processor; the harness follows the same discipline instead: a warm-up
+* window per case, timed measurement windows, and results fed to a sink.
+*
+* Usage: java --add-modules jdk.incubator.vector SelectorBenchmark
+*        [maxExponent [method ...]]
+* maxExponent defaults to 7; 8 adds 10^8-element arrays and needs a heap
+* of at least 2 GB. Methods default to all of them.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class SelectorBenchmark {
+
+   /** Nanoseconds spent warming up each case before measuring. */
+   private static final long WARMUP_NANOS = 300_000_000L;
+
+   /** Nanoseconds of measurement per case. */
+   private static final long MEASURE_NANOS = 1_000_000_000L;
+
+   /** Operations timed even if a case is slower than the window. */
+   private static final int MIN_SAMPLES = 5;
+
+   /** Least total size of the copies cycled through by the single workload. */
+   private static final long COLD_BYTES = 64L << 20;
+
+   /** Results are folded in here so no timed work can be optimized away. */
+   private static volatile long sink;
+
+   /** Sum of the values passed to CONSUME. */
+   private static long consumed;
+
+   /** The sink of range-consumer. */
+   private static final IntConsumer CONSUME = v -> consumed += v;
+
+   /**
+    * Output buffer for range-buffer and scratch array for kmin-scratch
+    * and kmax-scratch, as long as the current array.
+    */
+   private static int[] buffer;
+
+   /** Data distributions under test. */
+   private enum Distribution {
+      UNIFORM, SORTED, REVERSED, MANY_DUPLICATES, FEW_DISTINCT;
+
+      /**
+       * Returns n values from this distribution.
+       */
+      int[] generate(int n, Random random) {
+         int[] a = new int[n];
+         switch (this) {
+            case SORTED:
+               for (int i = 0; i < n; i++) {
+                  a[i] = i * 2;
+               }
+               break;
+            case REVERSED:
+               for (int i = 0; i < n; i++) {
+                  a[i] = (n - i) * 2;
+               }
+               break;
+            case MANY_DUPLICATES:
+               for (int i = 0; i < n; i++) {
+                  a[i] = random.nextInt(Math.max(1, n / 10));
+               }
+               break;
+            case FEW_DISTINCT:
+               for (int i = 0; i < n; i++) {
+                  a[i] = random.nextInt(8);
+               }
+               break;
+            default:
+               for (int i = 0; i < n; i++) {
+                  a[i] = random.nextInt();
+               }
+         }
+         return a;
+      }
+   }
+
+   /**
+    * An operation under test; q varies the arguments between calls. The
+    * index is over the same data and also supplies its distinct count.
+    */
+   private interface Operation {
+      long run(int[] a, SelectorIndex index, int q);
+   }
+
+   /** A named operation. */
+   private static final class Method {
+      final String name;
+      final Operation op;
+
+      Method(String name, Operation op) {
+         this.name = name;
+         this.op = op;
+      }
+   }
+
+
+   /**
+    * Can't instantiate this class.
+    */
+   private SelectorBenchmark() { }
+
+
+   /**
+    * Runs the benchmark; see the class comment for arguments.
+    */
+   public static void main(String[] args) {
+      int maxExponent = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+      List<String> only = Arrays.asList(args).subList(Math.min(1, args.length), args.length);
+
+      List<Method> methods = new ArrayList<Method>();
+      methods.add(new Method("min", (a, ix, q) -> Selector.min(a)));
+      methods.add(new Method("max", (a, ix, q) -> Selector.max(a)));
+      methods.add(new Method("kmin", (a, ix, q) -> Selector.kmin(a, 1 + q % ix.distinctCount())));
+      methods.add(new Method("kmax", (a, ix, q) -> Selector.kmax(a, 1 + q % ix.distinctCount())));
+      methods.add(new Method("kmin-scratch", (a, ix, q) ->
+         Selector.kmin(a, 1 + q % ix.distinctCount(), buffer)));
+      methods.add(new Method("kmax-scratch", (a, ix, q) ->
+         Selector.kmax(a, 1 + q % ix.distinctCount(), buffer)));
+      methods.add(new Method("kmin-batch", (a, ix, q) ->
+         Selector.kmin(a, new int[] {1, 1 + q % ix.distinctCount(), ix.distinctCount()}).length));
+      methods.add(new Method("kmax-batch", (a, ix, q) ->
+         Selector.kmax(a, new int[] {1, 1 + q % ix.distinctCount(), ix.distinctCount()}).length));
+      methods.add(new Method("orderStatistics", (a, ix, q) ->
+         Selector.orderStatistics(a, percentileRanks(a.length)).length));
+      methods.add(new Method("range", (a, ix, q) -> Selector.range(a, probe(a, q), probe(a, q + 1)).length));
+      methods.add(new Method("rangeCount", (a, ix, q) -> Selector.rangeCount(a, probe(a, q), probe(a, q + 1))));
+      methods.add(new Method("range-buffer", (a, ix, q) -> Selector.range(a, probe(a, q), probe(a, q + 1), buffer)));
+      methods.add(new Method("range-consumer", (a, ix, q) ->
+         Selector.range(a, probe(a, q), probe(a, q + 1), CONSUME)));
+      methods.add(new Method("floor", (a, ix, q) -> Selector.floor(a, Integer.MAX_VALUE - (q & 7))));
+      methods.add(new Method("ceiling", (a, ix, q) -> Selector.ceiling(a, Integer.MIN_VALUE + (q & 7))));
+      methods.add(new Method("index-floor", (a, ix, q) -> ix.floor(Math.max(probe(a, q), ix.kmin(1)))));
+      methods.add(new Method("index-range", (a, ix, q) -> ix.rangeCount(probe(a, q), probe(a, q + 1))));
+
+      System.out.printf("%-15s %-16s %10s %-7s %14s %11s %11s %11s %12s%n",
+         "method", "distribution", "size", "load", "ops/s", "p50 us", "p90 us", "p99 us", "B/op");
+      Random random = new Random(2018);
+      for (int e = 2; e <= maxExponent; e++) {
+         int n = (int) Math.pow(10, e);
+         for (Distribution d : Distribution.values()) {
+            int[] a = d.generate(n, random);
+            SelectorIndex index = new SelectorIndex(a);
+            buffer = new int[n];
+            for (Method m : methods) {
+               if (!only.isEmpty() && !only.contains(m.name)) {
+                  continue;
+               }
+               if (!m.name.startsWith("index-")) {
+                  measure(m, d, a, index, "single", random);
+               }
+               measure(m, d, a, index, "repeat", random);
+            }
+         }
+      }
+      sink += consumed;
+   }
+
+
+   /**
+    * Warms up, then times m until the measurement window closes, and
+    * prints one result row. The single workload cycles through copies
+    * of a made here, outside the timed region; see the class comment.
+    */
+   private static void measure(Method m, Distribution d, int[] a, SelectorIndex index,
+         String load, Random random) {
+      int[][] data = {a};
+      if (load.equals("single")) {
+         data = new int[(int) Math.max(1, COLD_BYTES / (4L * a.length))][];
+         for (int i = 0; i < data.length; i++) {
+            data[i] = a.clone();
+         }
+      }
+      run(m, data, index, WARMUP_NANOS, random);
+      com.sun.management.ThreadMXBean threads =
+         (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long[] nanos = run(m, data, index, MEASURE_NANOS, random);
+      // allocation is measured on a separate pass so the counter reads
+      // do not land inside the latency samples
+      int calls = Math.min(nanos.length, 1000);
+      long before = threads.getCurrentThreadAllocatedBytes();
+      long acc = 0;
+      for (int q = 0; q < calls; q++) {
+         acc += m.op.run(a, index, q);
+      }
+      long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+      sink += acc;
+
+      long total = 0;
+      for (long t : nanos) {
+         total += t;
+      }
+      Arrays.sort(nanos);
+      System.out.printf("%-15s %-16s %10d %-7s %14.1f %11.2f %11.2f %11.2f %12d%n",
+         m.name, d, a.length, load, nanos.length * 1e9 / total,
+         percentile(nanos, 0.50) / 1e3, percentile(nanos, 0.90) / 1e3, percentile(nanos, 0.99) / 1e3,
+         allocated / calls);
+   }
+
+
+   /**
+    * Calls m repeatedly for about budget nanoseconds (and at least
+    * MIN_SAMPLES times), on each array of data in turn, and returns the
+    * duration of each call.
+    */
+   private static long[] run(Method m, int[][] data, SelectorIndex index, long budget,
+         Random random) {
+      long[] nanos = new long[1024];
+      int count = 0;
+      long spent = 0;
+      long acc = 0;
+      for (int q = random.nextInt(1 << 16); spent < budget || count < MIN_SAMPLES; q++) {
+         int[] work = data[count % data.length];
+         long start = System.nanoTime();
+         acc += m.op.run(work, index, q);
+         long t = System.nanoTime() - start;
+         if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+         }
+         nanos[count++] = t;
+         spent += t;
+      }
+      sink += acc;
+      return Arrays.copyOf(nanos, count);
+   }
+
+
+   /**
+    * Returns the p-quantile of the sorted samples.
+    */
+   private static long percentile(long[] sorted, double p) {
+      return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+   }
+
+
+   /**
+    * Returns a value from a chosen by q, used as a query endpoint.
+    */
+   private static int probe(int[] a, int q) {
+      return a[(int) ((q * 2654435761L) & 0x7FFFFFFF) % a.length];
+   }
+
+
+   /**
+    * Returns the ranks of p50, p90, p99 and p99.9 in n values.
+    */
+   private static int[] percentileRanks(int n) {
+      return new int[] {
+         (int) Math.ceil(0.5 * n), (int) Math.ceil(0.9 * n),
+         (int) Math.ceil(0.99 * n), (int) Math.ceil(0.999 * n)};
+   }
+
+}
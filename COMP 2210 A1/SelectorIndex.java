@@ -0,0 +1,349 @@
+import java.util.Arrays;
+
+/**
+* An immutable index over a fixed array of ints that answers the
+* Selector queries floor, ceiling, range and kth distinct value in
+* O(log n) time after one O(n log n) build.
+*
+* The distinct values are stored in Eytzinger (breadth-first) order, so
+* the first few levels of every search share the same handful of cache
+* lines and each later step touches one predictable line. If the source
+* array has duplicates, each value is stored alongside the number of
+* elements that are less than or equal to it, which turns range counts
+* into two lookups. If every value is distinct, that count is one more
+* than the value's in-order rank, which is recomputed in O(log n) from
+* the node's position, so no counts are stored.
+*
+* Memory: an array of n distinct values costs one int array of n + 1
+* entries, about one int per element. An array with d < n distinct
+* values costs two int arrays of d + 1 entries, 8(d + 1) bytes, which
+* is at most one int per element once the average value repeats
+* twice.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-01-15
+*
+*/
+public final class SelectorIndex {
+
+   /** distinct values in Eytzinger order; keys[0] is unused. */
+   private final int[] keys;
+
+   /**
+    * cum[i] is the number of source elements <= keys[i]; null if every
+    * source element is distinct.
+    */
+   private final int[] cum;
+
+   /** number of distinct values. */
+   private final int d;
+
+   /** depth of the deepest level of the implicit tree. */
+   private final int height;
+
+
+   /**
+    * Builds an index over the values in a. This method throws
+    * IllegalArgumentException if a is null or has zero length. The
+    * array a is not changed, and later changes to a are not seen by
+    * the index.
+    */
+   public SelectorIndex(int[] a)throws IllegalArgumentException {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      int[] sorted = Arrays.copyOf(a, a.length);
+      Arrays.sort(sorted);
+      int m = 1;
+      for (int i = 1; i < sorted.length; i++) {
+         if (sorted[i] != sorted[i - 1]) {
+            m++;
+         }
+      }
+      // with duplicates, dedupe in place, keeping each value's running
+      // count in a second array that shares the same positions
+      int[] counts = null;
+      if (m < sorted.length) {
+         counts = new int[m];
+         m = 0;
+         for (int i = 0; i < sorted.length; i++) {
+            if (m == 0 || sorted[i] != sorted[m - 1]) {
+               sorted[m++] = sorted[i];
+            }
+            counts[m - 1] = i + 1;
+         }
+      }
+      d = m;
+      height = 31 - Integer.numberOfLeadingZeros(d);
+      keys = new int[d + 1];
+      cum = counts == null ? null : new int[d + 1];
+      layout(sorted, counts, 1, 0);
+   }
+
+
+   /**
+    * Copies sorted[pos..] into the subtree rooted at node i in in-order
+    * sequence and returns the next unused position.
+    */
+   private int layout(int[] sorted, int[] counts, int i, int pos) {
+      if (i > d) {
+         return pos;
+      }
+      pos = layout(sorted, counts, 2 * i, pos);
+      keys[i] = sorted[pos];
+      if (cum != null) {
+         cum[i] = counts[pos];
+      }
+      return layout(sorted, counts, 2 * i + 1, pos + 1);
+   }
+
+
+   /**
+    * Returns the number of elements in the indexed array.
+    */
+   public int size() {
+      return cum == null ? d : cum[rightmost()];
+   }
+
+
+   /**
+    * Returns the number of distinct values in the indexed array.
+    */
+   public int distinctCount() {
+      return d;
+   }
+
+
+   /**
+    * Returns the kth smallest distinct value, as Selector.kmin would
+    * for the indexed array. This method throws IllegalArgumentException
+    * if k < 1 or k is larger than the number of distinct values.
+    */
+   public int kmin(int k)throws IllegalArgumentException {
+      if (k < 1 || k > d) {
+         throw new IllegalArgumentException();
+      }
+      return keys[nodeOfRank(k - 1)];
+   }
+
+
+   /**
+    * Returns the kth largest distinct value, as Selector.kmax would
+    * for the indexed array. This method throws IllegalArgumentException
+    * if k < 1 or k is larger than the number of distinct values.
+    */
+   public int kmax(int k)throws IllegalArgumentException {
+      if (k < 1 || k > d) {
+         throw new IllegalArgumentException();
+      }
+      return keys[nodeOfRank(d - k)];
+   }
+
+
+   /**
+    * Returns the smallest indexed value that is greater than or equal
+    * to key. This method throws IllegalArgumentException if there is
+    * no qualifying value.
+    */
+   public int ceiling(int key)throws IllegalArgumentException {
+      int i = ceilingNode(key);
+      if (i == 0) {
+         throw new IllegalArgumentException();
+      }
+      return keys[i];
+   }
+
+
+   /**
+    * Returns the largest indexed value that is less than or equal to
+    * key. This method throws IllegalArgumentException if there is no
+    * qualifying value.
+    */
+   public int floor(int key)throws IllegalArgumentException {
+      int i = floorNode(key);
+      if (i == 0) {
+         throw new IllegalArgumentException();
+      }
+      return keys[i];
+   }
+
+
+   /**
+    * Returns the number of indexed values, counting duplicates, in the
+    * range [low..high]. Returns zero if low > high.
+    */
+   public int rangeCount(int low, int high) {
+      if (low > high) {
+         return 0;
+      }
+      return countAtMost(high) - countBelow(low);
+   }
+
+
+   /**
+    * Returns an array containing all the indexed values in the range
+    * [low..high], including duplicates, in ascending order. (Selector
+    * .range keeps the source order instead; the index no longer knows
+    * it.) If there are no qualifying values, this method returns a
+    * zero-length array. Runs in O(log n) plus the size of the result.
+    */
+   public int[] range(int low, int high) {
+      int[] b = new int[rangeCount(low, high)];
+      if (b.length == 0) {
+         return b;
+      }
+      int prev = countBelow(low);
+      int j = 0;
+      for (int i = ceilingNode(low); j < b.length; i = successor(i)) {
+         int through = cum == null ? prev + 1 : cum[i];
+         Arrays.fill(b, j, j + through - prev, keys[i]);
+         j += through - prev;
+         prev = through;
+      }
+      return b;
+   }
+
+
+   /**
+    * Returns the number of indexed values less than or equal to x.
+    */
+   private int countAtMost(int x) {
+      int i = floorNode(x);
+      return i == 0 ? 0 : countThrough(i);
+   }
+
+
+   /**
+    * Returns the number of indexed values less than or equal to the key
+    * of node i: cum[i] if it is stored, and otherwise the in-order rank
+    * of i plus one, found by adding up the left subtrees passed on the
+    * way up to the root.
+    */
+   private int countThrough(int i) {
+      if (cum != null) {
+         return cum[i];
+      }
+      int count = subtreeSize(2 * i) + 1;
+      for (int j = i; j > 1; j >>= 1) {
+         if ((j & 1) == 1) {
+            count += subtreeSize(j - 1) + 1;
+         }
+      }
+      return count;
+   }
+
+
+   /**
+    * Returns the number of indexed values strictly less than x.
+    */
+   private int countBelow(int x) {
+      return x == Integer.MIN_VALUE ? 0 : countAtMost(x - 1);
+   }
+
+
+   /**
+    * Returns the node holding the largest key <= x, or 0 if none.
+    */
+   private int floorNode(int x) {
+      int best = 0;
+      int i = 1;
+      while (i <= d) {
+         if (keys[i] <= x) {
+            best = i;
+            i = 2 * i + 1;
+         }
+         else {
+            i = 2 * i;
+         }
+      }
+      return best;
+   }
+
+
+   /**
+    * Returns the node holding the smallest key >= x, or 0 if none.
+    */
+   private int ceilingNode(int x) {
+      int best = 0;
+      int i = 1;
+      while (i <= d) {
+         if (keys[i] >= x) {
+            best = i;
+            i = 2 * i;
+         }
+         else {
+            i = 2 * i + 1;
+         }
+      }
+      return best;
+   }
+
+
+   /**
+    * Returns the node that comes after node i in key order, or 0 if i
+    * holds the largest key.
+    */
+   private int successor(int i) {
+      if (2 * i + 1 <= d) {
+         i = 2 * i + 1;
+         while (2 * i <= d) {
+            i = 2 * i;
+         }
+         return i;
+      }
+      // climb while i is a right child, then once more to the parent
+      return i >> (Integer.numberOfTrailingZeros(~i) + 1);
+   }
+
+
+   /**
+    * Returns the node holding the largest key.
+    */
+   private int rightmost() {
+      int i = 1;
+      while (2 * i + 1 <= d) {
+         i = 2 * i + 1;
+      }
+      return i;
+   }
+
+
+   /**
+    * Returns the node holding the key of in-order rank r (0-based).
+    */
+   private int nodeOfRank(int r) {
+      int i = 1;
+      while (true) {
+         int left = subtreeSize(2 * i);
+         if (r < left) {
+            i = 2 * i;
+         }
+         else if (r == left) {
+            return i;
+         }
+         else {
+            r -= left + 1;
+            i = 2 * i + 1;
+         }
+      }
+   }
+
+
+   /**
+    * Returns the number of nodes in the subtree rooted at node i. Every
+    * level of that subtree is full except possibly the deepest, whose
+    * occupied span can be read off directly, so this is O(1).
+    */
+   private int subtreeSize(int i) {
+      if (i > d) {
+         return 0;
+      }
+      int below = height - (31 - Integer.numberOfLeadingZeros(i));
+      int full = (1 << below) - 1;
+      int firstLeaf = i << below;
+      int leaves = Math.max(0, Math.min(1 << below, d - firstLeaf + 1));
+      return full + leaves;
+   }
+
+}
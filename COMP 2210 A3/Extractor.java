@@ -1,10 +1,15 @@
-import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.Scanner;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * Extractor.java. Implements feature extraction for collinear points in
@@ -20,35 +25,27 @@ public class Extractor {
    /** raw data: all (x,y) points from source data. */
    private Point[] points;
    
+   /** points read from a file, packed, until points or store is built. */
+   private long[] loaded;
+   
+   /** the distinct points in natural order, built when first needed. */
+   private PointStore store;
+   
    /** lines identified from raw data. */
    private SortedSet<Line> lines;
   
    /**
     * Builds an extractor based on the points in the file named by filename. 
+    * The file holds a count n followed by n pairs x y of non-negative ints,
+    * separated by whitespace; see PointFileParser. This constructor throws
+    * IllegalArgumentException if filename is null, if the file cannot be
+    * read, or if its contents are malformed.
     */
    public Extractor(String filename) {
-   
-      try {
-         Scanner scan = new Scanner(new File(filename));
-         
-         int size = scan.nextInt();
-         points = new Point[size];
-         
-         int x;
-         int y;
-            
-         for (int i = 0; i < size; i++) {
-            x = scan.nextInt();
-            y = scan.nextInt();
-               
-            points[i] = new Point(x, y);
-         } 
-            
-      }
-         
-      catch (java.io.FileNotFoundException e) {
-         System.err.println("File not found");
+      if (filename == null) {
+         throw new IllegalArgumentException();
       }
+      loaded = PointFileParser.parse(Paths.get(filename));
    }
   
    /**
@@ -66,8 +63,9 @@ public class Extractor {
     * if there are no qualifying line segments.
     */
    public SortedSet<Line> getLinesBrute() {
+      loadPoints();
       lines = new TreeSet<Line>();
-      Line s = new Line();
+      Line s = newLine();
       for (int i = 0; i < points.length; i++) {
          for (int j = i + 1; j < points.length; j++) {
             for (int k = j + 1; k < points.length; k++) {
@@ -76,10 +74,13 @@ public class Extractor {
                   s.add(points[j]);
                   
                   if (s.add(points[k]) && s.add(points[l]) && points.length > 4) {
+                     if (ExtractorStats.ENABLED) {
+                        ExtractorStats.SEGMENTS.increment();
+                     }
                      lines.add(s);
                   }
                   
-                  s = new Line();
+                  s = newLine();
                }
             }
          }
@@ -87,6 +88,30 @@ public class Extractor {
       return lines;
    }
   
+   /**
+    * Returns the same sorted set of four-point line segments as
+    * getLinesBrute, optionally computing it on the common ForkJoinPool.
+    * Collinearity is an exact integer cross-product test, and a pair
+    * of points whose line holds no third point is rejected before any
+    * fourth point is tried: the points collinear with each pair are
+    * gathered into one reused scratch buffer, and only that buffer is
+    * scanned for a fourth. Each worker owns its own buffers. Returns an
+    * empty set if there are no qualifying line segments.
+    */
+   public SortedSet<Line> getLinesBrute(boolean parallel) {
+      PointStore store = store();
+      AnchorScan scan = bruteScan(store);
+      if (parallel) {
+         // anchor i costs O((n - i)^2), so equal ranges of anchors would
+         // leave the first leaf most of the work; one anchor per leaf
+         // lets the pool balance it
+         return toLines(scanParallel(scan, store.size(), 1));
+      }
+      List<Segment> found = new ArrayList<Segment>();
+      scan.scan(0, store.size(), found::add);
+      return toLines(found);
+   }
+  
    /**
     * Returns a sorted set of all line segments of at least four collinear
     * points. The line segments are maximal; that is, no sub-segments are
@@ -94,16 +119,19 @@ public class Extractor {
     * set if there are no qualifying line segments.
     */
    public SortedSet<Line> getLinesFast() {
+      loadPoints();
       lines = new TreeSet<Line>();
       Point[] copy = Arrays.<Point>copyOf(points, points.length);
       
-      Arrays.sort(points);
+      Arrays.sort(points, ExtractorStats.counted(Comparator.<Point>naturalOrder(),
+         ExtractorStats.POINT_COMPARES));
       
-      Line line2 = new Line();
+      Line line2 = newLine();
       boolean added = true;
       
       for (int i = 0; i < points.length; i++) {
-         Arrays.sort(copy, points[i].slopeOrder);
+         Arrays.sort(copy, ExtractorStats.counted(points[i].slopeOrder,
+            ExtractorStats.SLOPE_COMPARES));
          
          for (int j = 1; j < points.length; j++) {
             line2.add(copy[0]);
@@ -111,10 +139,13 @@ public class Extractor {
             
             if (!added) {
                if (line2.length() >= 4) {
+                  if (ExtractorStats.ENABLED) {
+                     ExtractorStats.SEGMENTS.increment();
+                  }
                   lines.add(line2);
                }
                
-               line2 = new Line();
+               line2 = newLine();
                line2.add(copy[j]);
             }
          }
@@ -123,4 +154,302 @@ public class Extractor {
       return lines;
    }
    
+   /**
+    * Returns a sorted set of all line segments of at least four collinear
+    * points, exactly as getLinesFast does, in expected O(n^2) time. For
+    * each anchor point the other points are grouped by the exact slope
+    * key (dx, dy reduced by their gcd) in a hash table, so no sort and
+    * no floating-point comparison is needed. A group of three or more
+    * points is a maximal segment through the anchor, and it is emitted
+    * only from its least point, so each segment is built exactly once.
+    * Returns an empty set if there are no qualifying line segments.
+    */
+   public SortedSet<Line> getLinesHashed() {
+      return toLines(getSegments());
+   }
+   
+   /**
+    * Returns the maximal segments of getLinesHashed as a sorted set of
+    * Segments, which hold point indices rather than Points and make no
+    * Point or Line objects until a caller asks for them.
+    */
+   public SortedSet<Segment> getSegments() {
+      SortedSet<Segment> segments = new TreeSet<Segment>();
+      PointStore store = store();
+      hashedScan(store).scan(0, store.size(), segments::add);
+      return segments;
+   }
+   
+   /**
+    * Passes each maximal segment of getLinesHashed to sink as soon as it
+    * is complete, and returns how many there were. Nothing is kept
+    * between calls to sink: each segment is reported once, from its
+    * least point, so no set of earlier results is needed to skip
+    * duplicates, and memory use is the O(n) scratch space however many
+    * segments there are. Segments arrive in order of first point, not
+    * in Segment order. This method throws IllegalArgumentException if
+    * sink is null.
+    */
+   public long forEachSegment(Consumer<? super Segment> sink) throws IllegalArgumentException {
+      if (sink == null) {
+         throw new IllegalArgumentException();
+      }
+      long[] count = new long[1];
+      PointStore store = store();
+      hashedScan(store).scan(0, store.size(), segment -> {
+         count[0]++;
+         sink.accept(segment);
+      });
+      return count[0];
+   }
+   
+   /**
+    * Returns the same sorted set of maximal line segments as
+    * getLinesHashed, computed on the common ForkJoinPool. The anchors
+    * are split into ranges; each worker owns its slope table and
+    * scratch arrays and collects lines into a private list, and the
+    * lists are merged into one sorted set at the end. Because every
+    * segment is emitted only from its least point, no worker ever
+    * produces a sub-segment, and the merge has nothing to deduplicate.
+    * Returns an empty set if there are no qualifying line segments.
+    */
+   public SortedSet<Line> getLinesParallel() {
+      PointStore store = store();
+      int n = store.size();
+      int grain = Math.max(1, n / (ForkJoinPool.getCommonPoolParallelism() * 8));
+      return toLines(scanParallel(hashedScan(store), n, grain));
+   }
+   
+   /**
+    * Returns the distinct points as a PointStore, building it on first
+    * use.
+    */
+   private PointStore store() {
+      if (store == null) {
+         store = points != null ? new PointStore(points)
+            : new PointStore(Arrays.copyOf(loaded, loaded.length), loaded.length);
+      }
+      return store;
+   }
+   
+   /**
+    * Makes points from the packed points read by the file constructor,
+    * if that has not been done yet.
+    */
+   private void loadPoints() {
+      if (points == null) {
+         points = new Point[loaded.length];
+         for (int i = 0; i < loaded.length; i++) {
+            points[i] = new Point((int) loaded[i], (int) (loaded[i] >>> 32));
+         }
+         loaded = null;
+      }
+   }
+   
+   /**
+    * Sets lines to the Lines of the given segments and returns it.
+    */
+   private SortedSet<Line> toLines(Collection<Segment> segments) {
+      lines = new TreeSet<Line>();
+      for (Segment segment : segments) {
+         if (ExtractorStats.ENABLED) {
+            ExtractorStats.LINES.increment();
+         }
+         lines.add(segment.toLine());
+      }
+      return lines;
+   }
+   
+   /**
+    * Returns a new empty Line, counting it in ExtractorStats.
+    */
+   private static Line newLine() {
+      if (ExtractorStats.ENABLED) {
+         ExtractorStats.LINES.increment();
+      }
+      return new Line();
+   }
+   
+   /**
+    * Returns a scan that runs linesFrom over a range of anchors, with
+    * scratch space of its own.
+    */
+   private static AnchorScan hashedScan(PointStore store) {
+      return (lo, hi, out) -> {
+         AnchorScratch scratch = new AnchorScratch(store.size());
+         for (int i = lo; i < hi; i++) {
+            linesFrom(store, i, scratch, out);
+         }
+      };
+   }
+   
+   /**
+    * Returns a scan that runs bruteFrom over a range of anchors, with
+    * scratch space of its own.
+    */
+   private static AnchorScan bruteScan(PointStore store) {
+      return (lo, hi, out) -> {
+         int[] collinear = new int[store.size()];
+         int[] seen = new int[store.size()];
+         for (int i = lo; i < hi; i++) {
+            bruteFrom(store, i, collinear, seen, out);
+         }
+      };
+   }
+   
+   /**
+    * Runs scan over the anchors [0..n) on the common ForkJoinPool, in
+    * leaves of at most grain anchors, and returns everything it found.
+    */
+   private static List<Segment> scanParallel(AnchorScan scan, int n, int grain) {
+      return ForkJoinPool.commonPool().invoke(new AnchorTask(scan, 0, n, grain));
+   }
+   
+   /**
+    * Finds the four-point segments whose least point is point i of
+    * store and passes one of each, by endpoints, to out. For each j > i
+    * the points k > j collinear with i and j are gathered into
+    * collinear; with the first of them as the third point, every later
+    * one is a fourth. seen[l] == i + 1 marks segments (i, l) already
+    * added.
+    */
+   private static void bruteFrom(PointStore store, int i, int[] collinear, int[] seen,
+         Consumer<? super Segment> out) {
+      int n = store.size();
+      int x = store.x(i);
+      int y = store.y(i);
+      for (int j = i + 1; j < n - 2; j++) {
+         long dx = store.x(j) - x;
+         long dy = store.y(j) - y;
+         int c = 0;
+         for (int k = j + 1; k < n; k++) {
+            if (dx * (store.y(k) - y) == dy * (store.x(k) - x)) {
+               collinear[c++] = k;
+            }
+         }
+         for (int m = 1; m < c; m++) {
+            int l = collinear[m];
+            if (seen[l] != i + 1) {
+               seen[l] = i + 1;
+               if (ExtractorStats.ENABLED) {
+                  ExtractorStats.SEGMENTS.increment();
+               }
+               out.accept(new Segment(store, new int[] {i, j, collinear[0], l}));
+            }
+         }
+      }
+   }
+   
+   /**
+    * Finds the maximal segments whose least point is point i of store
+    * and passes them to out. The points of each slope group are chained
+    * through next in ascending order, so a segment is built only when
+    * its last point is reached.
+    */
+   private static void linesFrom(PointStore store, int i, AnchorScratch scratch,
+         Consumer<? super Segment> out) {
+      SlopeTable table = scratch.table;
+      int[] slotOf = scratch.slotOf;
+      int[] next = scratch.next;
+      int[] head = scratch.head;
+      int[] tail = scratch.tail;
+      table.clear();
+      int x = store.x(i);
+      int y = store.y(i);
+      for (int j = 0; j < store.size(); j++) {
+         if (j == i) {
+            continue;
+         }
+         int s = table.slot(SlopeTable.key(store.x(j) - x, store.y(j) - y));
+         slotOf[j] = s;
+         if (table.counts[s]++ == 0) {
+            head[s] = j;
+         }
+         else {
+            next[tail[s]] = j;
+         }
+         tail[s] = j;
+         if (j < i) {
+            table.blocked[s] = true;
+         }
+      }
+      
+      for (int j = i + 1; j < store.size(); j++) {
+         int s = slotOf[j];
+         if (tail[s] != j || table.blocked[s] || table.counts[s] < 3) {
+            continue;
+         }
+         int[] members = new int[table.counts[s] + 1];
+         members[0] = i;
+         for (int k = head[s], m = 1; m < members.length; k = next[k], m++) {
+            members[m] = k;
+         }
+         if (ExtractorStats.ENABLED) {
+            ExtractorStats.SEGMENTS.increment();
+         }
+         out.accept(new Segment(store, members));
+      }
+   }
+   
+   /**
+    * Working storage for linesFrom, reused across anchors by one thread.
+    */
+   private static final class AnchorScratch {
+      final SlopeTable table;
+      final int[] slotOf;
+      final int[] next;
+      final int[] head;
+      final int[] tail;
+      
+      AnchorScratch(int n) {
+         table = new SlopeTable(n);
+         slotOf = new int[n];
+         next = new int[n];
+         head = new int[table.counts.length];
+         tail = new int[table.counts.length];
+      }
+   }
+   
+   /**
+    * Passes the segments found from the anchors [lo..hi) to out.
+    */
+   private interface AnchorScan {
+      void scan(int lo, int hi, Consumer<? super Segment> out);
+   }
+   
+   /**
+    * Runs an AnchorScan over the anchors [lo..hi), splitting the range
+    * until it is no longer than grain.
+    */
+   private static final class AnchorTask extends RecursiveTask<List<Segment>> {
+      private static final long serialVersionUID = 1L;
+
+      private final AnchorScan scan;
+      private final int lo;
+      private final int hi;
+      private final int grain;
+      
+      AnchorTask(AnchorScan scan, int lo, int hi, int grain) {
+         this.scan = scan;
+         this.lo = lo;
+         this.hi = hi;
+         this.grain = grain;
+      }
+      
+      @Override
+      protected List<Segment> compute() {
+         if (hi - lo <= grain) {
+            List<Segment> found = new ArrayList<Segment>();
+            scan.scan(lo, hi, found::add);
+            return found;
+         }
+         int mid = (lo + hi) >>> 1;
+         AnchorTask left = new AnchorTask(scan, lo, mid, grain);
+         left.fork();
+         List<Segment> found = new AnchorTask(scan, mid, hi, grain).compute();
+         found.addAll(left.join());
+         return found;
+      }
+   }
+   
 }
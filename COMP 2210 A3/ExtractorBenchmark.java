@@ -0,0 +1,282 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+* A repeatable benchmark harness for Extractor. Each method is timed
+* on point sets of 10^2 points and up, by powers of ten, drawn from
+* four datasets:
+*
+*    random    - uniform points, with almost no collinear groups;
+*    grid      - a square grid, where nearly every direction is a line;
+*    clusters  - many short dense runs of 16 collinear points;
+*    one-line  - every point on a single line.
+*
+* The methods are brute (getLinesBrute), brute-pruned and
+* brute-parallel (getLinesBrute(boolean)), fast (getLinesFast), hashed
+* (getLinesHashed), parallel (getLinesParallel), stream
+* (forEachSegment, counting only) and load (the PointFileParser behind
+* Extractor(String), on a point file of the dataset). Every extraction
+* uses a fresh Extractor, so the time includes building the point
+* store. Methods are skipped above the size where their asymptotic cost
+* makes a run impractical; see LIMITS. Only load reaches 10^6 points;
+* hashed, parallel and stream stop at 10^4, and the methods that build
+* the full set of segments stop at 10^3 on grid, whose 10^4 points
+* already lie on about 1.5 million segments.
+*
+* Each row gives the number of segments found (points read, for load),
+* the mean, median and worst time per operation, and the bytes
+* allocated per operation by the calling thread (from com.sun.management.ThreadMXBean; the work done
+* by pool threads in the parallel methods is not included). If the JVM
+* runs with -Dextractor.stats=true, the row also gives the per-operation
+* ExtractorStats counts: slopeOrder and natural order comparisons made
+* by Extractor's sorts, Line allocations and segments reported. JMH is not used
+* for the reasons given in SelectorBenchmark; this harness follows the
+* same discipline of warm-up, timed windows and a result sink.
+*
+* Usage: java ExtractorBenchmark [maxExponent [method ...]]
+* maxExponent defaults to 6; methods default to all of them.
+*
+* @author   Michael Johnson (mdj0025@auburn.edu)
+* @author   Dean Hendrix (dh@auburn.edu)
+* @version  2018-02-27
+*
+*/
+public final class ExtractorBenchmark {
+
+   /** Nanoseconds spent warming up each case before measuring. */
+   private static final long WARMUP_NANOS = 500_000_000L;
+
+   /** Nanoseconds of measurement per case. */
+   private static final long MEASURE_NANOS = 2_000_000_000L;
+
+   /** Operations timed even if a case is slower than the window. */
+   private static final int MIN_SAMPLES = 3;
+
+   /**
+    * Largest exponent run for each size-limited method: the method, its
+    * limit, and its limit on grid.
+    */
+   private static final String[][] LIMITS = {
+      {"brute", "2", "2"}, {"brute-pruned", "3", "3"}, {"brute-parallel", "3", "3"},
+      {"fast", "4", "3"}, {"hashed", "4", "3"}, {"parallel", "4", "3"}, {"stream", "4", "4"}};
+
+   /** Results are folded in here so no timed work can be optimized away. */
+   private static volatile long sink;
+
+   /** Datasets under test. */
+   private enum Dataset {
+      RANDOM, GRID, CLUSTERS, ONE_LINE;
+
+      /**
+       * Returns n points from this dataset.
+       */
+      List<Point> generate(int n, Random random) {
+         List<Point> points = new ArrayList<Point>(n);
+         switch (this) {
+            case GRID:
+               int side = (int) Math.ceil(Math.sqrt(n));
+               for (int i = 0; i < n; i++) {
+                  points.add(new Point(i % side, i / side));
+               }
+               break;
+            case CLUSTERS:
+               while (points.size() < n) {
+                  int x = random.nextInt(1 << 20);
+                  int y = random.nextInt(1 << 20);
+                  int dx = 1 + random.nextInt(8);
+                  int dy = random.nextInt(9);
+                  for (int t = 0; t < 16 && points.size() < n; t++) {
+                     points.add(new Point(x + t * dx, y + t * dy));
+                  }
+               }
+               break;
+            case ONE_LINE:
+               for (int i = 0; i < n; i++) {
+                  points.add(new Point(i, 3 * i));
+               }
+               break;
+            default:
+               for (int i = 0; i < n; i++) {
+                  points.add(new Point(random.nextInt(1 << 20), random.nextInt(1 << 20)));
+               }
+         }
+         return points;
+      }
+
+      @Override
+      public String toString() {
+         return name().toLowerCase().replace('_', '-');
+      }
+   }
+
+   /** The input of one case: the points, and a file holding them. */
+   private static final class Workload {
+      final List<Point> points;
+      private Path file;
+
+      Workload(List<Point> points) {
+         this.points = points;
+      }
+
+      /**
+       * Returns a temporary point file of these points, writing it on
+       * first use.
+       */
+      Path file() {
+         if (file == null) {
+            try {
+               file = Files.createTempFile("points", ".txt");
+               file.toFile().deleteOnExit();
+               try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                  out.write(points.size() + "\n");
+                  for (Point p : points) {
+                     out.write(p.getX() + " " + p.getY() + "\n");
+                  }
+               }
+            }
+            catch (IOException e) {
+               throw new UncheckedIOException(e);
+            }
+         }
+         return file;
+      }
+   }
+
+   /** An operation under test; returns the number of segments found. */
+   private interface Operation {
+      long run(Workload w);
+   }
+
+   /** A named operation. */
+   private static final class Method {
+      final String name;
+      final Operation op;
+
+      Method(String name, Operation op) {
+         this.name = name;
+         this.op = op;
+      }
+   }
+
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ExtractorBenchmark() { }
+
+
+   /**
+    * Runs the benchmark; see the class comment for arguments.
+    */
+   public static void main(String[] args) {
+      int maxExponent = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+      List<String> only = Arrays.asList(args).subList(Math.min(1, args.length), args.length);
+
+      List<Method> methods = new ArrayList<Method>();
+      methods.add(new Method("brute", w -> new Extractor(w.points).getLinesBrute().size()));
+      methods.add(new Method("brute-pruned", w -> new Extractor(w.points).getLinesBrute(false).size()));
+      methods.add(new Method("brute-parallel", w -> new Extractor(w.points).getLinesBrute(true).size()));
+      methods.add(new Method("fast", w -> new Extractor(w.points).getLinesFast().size()));
+      methods.add(new Method("hashed", w -> new Extractor(w.points).getLinesHashed().size()));
+      methods.add(new Method("parallel", w -> new Extractor(w.points).getLinesParallel().size()));
+      methods.add(new Method("stream", w -> new Extractor(w.points).forEachSegment(s -> { })));
+      methods.add(new Method("load", w -> PointFileParser.parse(w.file()).length));
+
+      System.out.printf("%-15s %-9s %8s %9s %11s %11s %11s %13s%s%n",
+         "method", "dataset", "size", "segments", "mean ms", "p50 ms", "max ms", "B/op",
+         ExtractorStats.ENABLED ? String.format(" %13s %13s %11s %11s",
+            "slopeCmp/op", "pointCmp/op", "lines/op", "segs/op") : "");
+      Random random = new Random(2018);
+      for (int e = 2; e <= maxExponent; e++) {
+         int n = (int) Math.pow(10, e);
+         for (Dataset d : Dataset.values()) {
+            Workload w = new Workload(d.generate(n, random));
+            for (Method m : methods) {
+               if ((!only.isEmpty() && !only.contains(m.name)) || e > limit(m.name, d)) {
+                  continue;
+               }
+               measure(m, d, w);
+            }
+         }
+      }
+   }
+
+
+   /**
+    * Returns the largest exponent run for the named method on d.
+    */
+   private static int limit(String name, Dataset d) {
+      for (String[] limit : LIMITS) {
+         if (limit[0].equals(name)) {
+            return Integer.parseInt(limit[d == Dataset.GRID ? 2 : 1]);
+         }
+      }
+      return Integer.MAX_VALUE;
+   }
+
+
+   /**
+    * Warms up, then times m until the measurement window closes, and
+    * prints one result row.
+    */
+   private static void measure(Method m, Dataset d, Workload w) {
+      run(m, w, WARMUP_NANOS);
+      long segments = m.op.run(w);
+      sink += segments;
+      com.sun.management.ThreadMXBean threads =
+         (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      ExtractorStats.reset();
+      long before = threads.getCurrentThreadAllocatedBytes();
+      long[] nanos = run(m, w, MEASURE_NANOS);
+      long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+      long total = 0;
+      for (long t : nanos) {
+         total += t;
+      }
+      Arrays.sort(nanos);
+      int ops = nanos.length;
+      System.out.printf("%-15s %-9s %8d %9d %11.3f %11.3f %11.3f %13d%s%n",
+         m.name, d, w.points.size(), segments, total / 1e6 / ops,
+         nanos[(ops - 1) / 2] / 1e6, nanos[ops - 1] / 1e6, allocated / ops,
+         ExtractorStats.ENABLED ? String.format(" %13d %13d %11d %11d",
+            ExtractorStats.SLOPE_COMPARES.sum() / ops, ExtractorStats.POINT_COMPARES.sum() / ops,
+            ExtractorStats.LINES.sum() / ops,
+            ExtractorStats.SEGMENTS.sum() / ops) : "");
+   }
+
+
+   /**
+    * Calls m repeatedly for about budget nanoseconds (and at least
+    * MIN_SAMPLES times, once when warming up) and returns the duration
+    * of each call.
+    */
+   private static long[] run(Method m, Workload w, long budget) {
+      int least = budget == WARMUP_NANOS ? 1 : MIN_SAMPLES;
+      long[] nanos = new long[16];
+      int count = 0;
+      long spent = 0;
+      long acc = 0;
+      while (spent < budget || count < least) {
+         long start = System.nanoTime();
+         acc += m.op.run(w);
+         long t = System.nanoTime() - start;
+         if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+         }
+         nanos[count++] = t;
+         spent += t;
+      }
+      sink += acc;
+      return Arrays.copyOf(nanos, count);
+   }
+
+}
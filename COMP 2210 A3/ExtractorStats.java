@@ -0,0 +1,67 @@
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ExtractorStats.java. Optional operation counters for Extractor, for
+ * finding where extraction time goes. Point is not instrumented; the
+ * comparisons Extractor makes through it are counted by wrapping the
+ * comparators Extractor sorts with.
+ *
+ * Counting is off unless the JVM is started with
+ * -Dextractor.stats=true. ENABLED is a static final constant, so when it
+ * is false every guarded increment is removed by the JIT and costs
+ * nothing. The counters are LongAdders, so the parallel extraction
+ * modes may update them from any thread.
+ *
+ * @author  Michael Johnson (mdj0025@auburn.edu)
+ * @author  Dean Hendrix (dh@auburn.edu)
+ * @version 2018-02-27
+ *
+ */
+final class ExtractorStats {
+
+   /** true if counting is on for this JVM. */
+   static final boolean ENABLED = Boolean.getBoolean("extractor.stats");
+
+   /** slopeOrder comparisons made by Extractor's sorts. */
+   static final LongAdder SLOPE_COMPARES = new LongAdder();
+
+   /** natural order comparisons of points made by Extractor's sorts. */
+   static final LongAdder POINT_COMPARES = new LongAdder();
+
+   /** Line objects created by Extractor. */
+   static final LongAdder LINES = new LongAdder();
+
+   /** segments reported by an extraction method, before any set merges them. */
+   static final LongAdder SEGMENTS = new LongAdder();
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ExtractorStats() { }
+
+   /**
+    * Sets every counter to zero.
+    */
+   static void reset() {
+      SLOPE_COMPARES.reset();
+      POINT_COMPARES.reset();
+      LINES.reset();
+      SEGMENTS.reset();
+   }
+
+   /**
+    * Returns order itself if counting is off, and otherwise a comparator
+    * that counts each of its calls in counter before delegating to order.
+    */
+   static <T> Comparator<T> counted(Comparator<T> order, LongAdder counter) {
+      if (!ENABLED) {
+         return order;
+      }
+      return (a, b) -> {
+         counter.increment();
+         return order.compare(a, b);
+      };
+   }
+
+}
@@ -0,0 +1,246 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * IncrementalExtractor.java. Maintains the set of maximal line segments
+ * of at least four collinear points, as Extractor.getLinesFast defines
+ * it, while points are added and removed.
+ *
+ * A maximal segment is every point on one line, so a change to point p
+ * affects only the lines through p. An update groups the other points
+ * by their exact slope key from p, in expected O(n) time, linking the
+ * members of each group as it goes, and then for each group of three
+ * or more:
+ *
+ *    add     - the line through p in that direction gains p; if it
+ *              had four or more points it is extended in place,
+ *              otherwise the linked members and p form a new segment;
+ *    remove  - the line loses p; it is rebuilt from its other points,
+ *              or dropped if only three points are left.
+ *
+ * Because a segment is the whole collinear set, adding a point between
+ * two collinear runs needs no separate merge, and removing one never
+ * splits a segment. The groups partition the other points, so building
+ * or rebuilding the affected Lines touches each point at most once,
+ * at O(log n) per point.
+ *
+ * @author  Michael Johnson (mdj0025@auburn.edu)
+ * @author  Dean Hendrix (dh@auburn.edu)
+ * @version 2018-02-27
+ *
+ */
+public class IncrementalExtractor {
+
+   /** current points, unordered, in pts[0..size). */
+   private Point[] pts = new Point[16];
+   private int size;
+
+   /** position of each current point in pts. */
+   private final Map<Point, Integer> index = new HashMap<Point, Integer>();
+
+   /** current maximal segments, and each one by its line. */
+   private final SortedSet<Line> lines = new TreeSet<Line>();
+   private final Map<LineKey, Line> byKey = new HashMap<LineKey, Line>();
+
+   /** scratch for grouping by slope; see group. */
+   private SlopeTable table = new SlopeTable(16);
+   private int[] slotOf = new int[16];
+   private int[] nextOf = new int[16];
+   private int[] firstOf = new int[table.counts.length];
+   private int[] lastOf = new int[table.counts.length];
+
+   /**
+    * Creates an extractor with no points.
+    */
+   public IncrementalExtractor() {
+   }
+
+   /**
+    * Creates an extractor holding the distinct points of pcoll.
+    */
+   public IncrementalExtractor(Collection<Point> pcoll) {
+      for (Point p : pcoll) {
+         add(p);
+      }
+   }
+
+   /**
+    * Adds the point p and updates the line segments through it. Returns
+    * true if p was added, or false if it was already present. Throws
+    * IllegalArgumentException if p is null.
+    */
+   public boolean add(Point p) throws IllegalArgumentException {
+      if (p == null) {
+         throw new IllegalArgumentException();
+      }
+      if (index.containsKey(p)) {
+         return false;
+      }
+      group(p);
+      for (int j = 0; j < size; j++) {
+         int s = slotOf[j];
+         if (firstOf[s] != j || table.counts[s] < 3) {
+            continue;
+         }
+         LineKey key = new LineKey(p, pts[j]);
+         Line line = byKey.get(key);
+         if (line == null) {
+            line = new Line();
+            for (int k = j, c = 0; c < table.counts[s]; k = nextOf[k], c++) {
+               line.add(pts[k]);
+            }
+            byKey.put(key, line);
+         }
+         else {
+            lines.remove(line);
+         }
+         line.add(p);
+         lines.add(line);
+      }
+
+      if (size == pts.length) {
+         grow();
+      }
+      index.put(p, size);
+      pts[size++] = p;
+      return true;
+   }
+
+   /**
+    * Removes the point p and updates the line segments that ran through
+    * it. Returns true if p was removed, or false if it was not present.
+    * Throws IllegalArgumentException if p is null.
+    */
+   public boolean remove(Point p) throws IllegalArgumentException {
+      if (p == null) {
+         throw new IllegalArgumentException();
+      }
+      Integer at = index.remove(p);
+      if (at == null) {
+         return false;
+      }
+      Point moved = pts[--size];
+      pts[at] = moved;
+      pts[size] = null;
+      if (at != size) {
+         index.put(moved, at);
+      }
+
+      group(p);
+      for (int j = 0; j < size; j++) {
+         int s = slotOf[j];
+         if (firstOf[s] != j || table.counts[s] < 3) {
+            continue;
+         }
+         LineKey key = new LineKey(p, pts[j]);
+         Line line = byKey.get(key);
+         lines.remove(line);
+         if (table.counts[s] == 3) {
+            byKey.remove(key);
+         }
+         else {
+            Line shrunk = new Line();
+            for (Point q : line) {
+               if (!q.equals(p)) {
+                  shrunk.add(q);
+               }
+            }
+            byKey.put(key, shrunk);
+            lines.add(shrunk);
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns true if p is one of the current points.
+    */
+   public boolean contains(Point p) {
+      return p != null && index.containsKey(p);
+   }
+
+   /**
+    * Returns the number of current points.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Returns a read-only, live view of the current maximal segments of
+    * at least four collinear points, in Line order.
+    */
+   public SortedSet<Line> getLines() {
+      return Collections.unmodifiableSortedSet(lines);
+   }
+
+   /**
+    * Groups the current points, which do not include p, by slope key
+    * from p. On return slotOf[j] is the group of pts[j], table.counts
+    * holds each group's size, firstOf names the first member of each
+    * group, and nextOf[j] names the member after pts[j] in its group.
+    */
+   private void group(Point p) {
+      table.clear();
+      for (int j = 0; j < size; j++) {
+         int s = table.slot(SlopeTable.key(pts[j].getX() - p.getX(), pts[j].getY() - p.getY()));
+         slotOf[j] = s;
+         if (table.counts[s]++ == 0) {
+            firstOf[s] = j;
+         }
+         else {
+            nextOf[lastOf[s]] = j;
+         }
+         lastOf[s] = j;
+      }
+   }
+
+   /**
+    * Doubles the room for points, and the grouping scratch with it.
+    */
+   private void grow() {
+      pts = Arrays.copyOf(pts, pts.length * 2);
+      slotOf = new int[pts.length];
+      nextOf = new int[pts.length];
+      table = new SlopeTable(pts.length);
+      firstOf = new int[table.counts.length];
+      lastOf = new int[table.counts.length];
+   }
+
+   /**
+    * Identifies the line through two distinct points, independently of
+    * which two of its points are used: the reduced direction key and
+    * the line's constant dy * x - dx * y along that direction.
+    */
+   private static final class LineKey {
+      private final long direction;
+      private final long offset;
+
+      LineKey(Point p, Point q) {
+         direction = SlopeTable.key(q.getX() - p.getX(), q.getY() - p.getY());
+         long dx = (int) direction;
+         long dy = direction >> 32;
+         offset = dy * p.getX() - dx * p.getY();
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (!(obj instanceof LineKey)) {
+            return false;
+         }
+         LineKey that = (LineKey) obj;
+         return direction == that.direction && offset == that.offset;
+      }
+
+      @Override
+      public int hashCode() {
+         return Long.hashCode(direction * 31 + offset);
+      }
+   }
+
+}
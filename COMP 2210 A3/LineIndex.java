@@ -0,0 +1,327 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LineIndex.java. Answers queries over a fixed set of line segments,
+ * such as the output of Extractor: which segments pass through a point,
+ * and which segments meet an axis-aligned box.
+ *
+ * Point queries are a hash lookup in a map from each point to the
+ * segments that contain it. Box queries use a uniform grid over the
+ * segments' extent, with about one cell per segment, made coarser if
+ * needed so the cell lists hold about ENTRIES_PER_SEGMENT entries per
+ * segment. Each segment is listed only in the cells it passes through,
+ * found by an exact integer walk from its first point to its last, so a
+ * long segment costs O(side) entries rather than its bounding box's
+ * O(side^2). Each entry also records where the walk came from: nowhere,
+ * the previous cell in the same row, or a cell in the row below. A
+ * segment meets the cells a query box covers in one unbroken run of its
+ * walk, so the query reports it only from the entry whose predecessor
+ * is outside those cells, and needs no per-query set to avoid
+ * duplicates. Candidates are then checked exactly: a segment meets the
+ * box if their bounding boxes overlap and the box's corners are not all
+ * strictly on one side of it.
+ *
+ * An index is immutable and safe for concurrent queries. It does not
+ * follow later changes to the Lines it was built from.
+ *
+ * @author  Michael Johnson (mdj0025@auburn.edu)
+ * @author  Dean Hendrix (dh@auburn.edu)
+ * @version 2018-02-27
+ *
+ */
+public final class LineIndex {
+
+   /** Most grid cells along either axis. */
+   private static final int MAX_CELLS = 1024;
+
+   /** Target average number of cells listing each segment. */
+   private static final int ENTRIES_PER_SEGMENT = 4;
+
+   /** Where the walk of a segment reached a cell from, kept in the low bits of its entry. */
+   private static final int FIRST = 0;
+   private static final int SAME_ROW = 1;
+   private static final int BELOW = 2;
+   private static final int BELOW_BEHIND = 3;
+
+   /** the segments, and the segments through each point. */
+   private final Line[] lines;
+   private final Map<Point, List<Line>> through = new HashMap<Point, List<Line>>();
+
+   /** endpoints of lines[i]; x0 <= x1 is not implied, y0 <= y1 is. */
+   private final int[] x0;
+   private final int[] y0;
+   private final int[] x1;
+   private final int[] y1;
+
+   /** grid origin, cell sizes and cells per axis. */
+   private final int minX;
+   private final int minY;
+   private final int cellWidth;
+   private final int cellHeight;
+   private final int columns;
+   private final int rows;
+
+   /**
+    * entries of the segments in cell c are cellLines[cellStart[c]..cellStart[c + 1]);
+    * an entry is (id << 2) | how the walk reached the cell.
+    */
+   private final int[] cellStart;
+   private final int[] cellLines;
+
+   /**
+    * Builds an index over the non-empty lines in c. This constructor
+    * throws IllegalArgumentException if c is null.
+    */
+   public LineIndex(Collection<Line> c) throws IllegalArgumentException {
+      if (c == null) {
+         throw new IllegalArgumentException();
+      }
+      List<Line> kept = new ArrayList<Line>();
+      for (Line line : c) {
+         if (line != null && line.length() > 0) {
+            kept.add(line);
+         }
+      }
+      lines = kept.toArray(new Line[0]);
+      int n = lines.length;
+      x0 = new int[n];
+      y0 = new int[n];
+      x1 = new int[n];
+      y1 = new int[n];
+      int loX = Integer.MAX_VALUE;
+      int loY = Integer.MAX_VALUE;
+      int hiX = 0;
+      int hiY = 0;
+      for (int i = 0; i < n; i++) {
+         Point first = lines[i].first();
+         Point last = lines[i].last();
+         x0[i] = first.getX();
+         y0[i] = first.getY();
+         x1[i] = last.getX();
+         y1[i] = last.getY();
+         loX = Math.min(loX, Math.min(x0[i], x1[i]));
+         hiX = Math.max(hiX, Math.max(x0[i], x1[i]));
+         loY = Math.min(loY, y0[i]);
+         hiY = Math.max(hiY, y1[i]);
+         for (Point p : lines[i]) {
+            through.computeIfAbsent(p, k -> new ArrayList<Line>(2)).add(lines[i]);
+         }
+      }
+      for (Map.Entry<Point, List<Line>> e : through.entrySet()) {
+         e.setValue(Collections.unmodifiableList(e.getValue()));
+      }
+
+      // each segment crosses about one cell, plus one per cell width
+      // and height it spans; shrink the grid until that fits the budget
+      double spans = 0;
+      for (int i = 0; i < n; i++) {
+         spans += (double) Math.abs((long) x1[i] - x0[i]) / ((long) hiX - loX + 1)
+            + (double) ((long) y1[i] - y0[i]) / ((long) hiY - loY + 1);
+      }
+      double side = Math.min(MAX_CELLS, Math.ceil(Math.sqrt(n)));
+      if (spans > 0) {
+         side = Math.min(side, Math.floor((ENTRIES_PER_SEGMENT - 1) * n / spans));
+      }
+      int cells = (int) Math.max(1, side);
+      minX = n == 0 ? 0 : loX;
+      minY = n == 0 ? 0 : loY;
+      cellWidth = (int) Math.max(1, ((long) hiX - minX + cells) / cells);
+      cellHeight = (int) Math.max(1, ((long) hiY - minY + cells) / cells);
+      columns = (int) Math.min(cells, ((long) hiX - minX) / cellWidth + 1);
+      rows = (int) Math.min(cells, ((long) hiY - minY) / cellHeight + 1);
+
+      cellStart = new int[columns * rows + 1];
+      for (int i = 0; i < n; i++) {
+         walk(i, null);
+      }
+      for (int k = 1; k < cellStart.length; k++) {
+         cellStart[k] += cellStart[k - 1];
+      }
+      cellLines = new int[cellStart[cellStart.length - 1]];
+      int[] fill = Arrays.copyOf(cellStart, columns * rows);
+      for (int i = 0; i < n; i++) {
+         walk(i, fill);
+      }
+   }
+
+   /**
+    * Visits, in order from its first point, every cell that holds a
+    * point of segment i. With fill null, each visit counts the entry in
+    * cellStart[cell + 1]; otherwise the entry is stored at
+    * cellLines[fill[cell]++].
+    */
+   private void walk(int i, int[] fill) {
+      int step = x1[i] < x0[i] ? -1 : 1;
+      int firstRow = row(y0[i]);
+      int lastRow = row(y1[i]);
+      int previous = 0;
+      for (int r = firstRow; r <= lastRow; r++) {
+         int from;
+         int to;
+         if (y0[i] == y1[i]) {
+            from = column(x0[i]);
+            to = column(x1[i]);
+         }
+         else {
+            from = r == firstRow ? column(x0[i]) : columnAt(i, (long) minY + (long) r * cellHeight, false);
+            to = r == lastRow ? column(x1[i]) : columnAt(i, (long) minY + (long) (r + 1) * cellHeight, true);
+         }
+         for (int col = from; ; col += step) {
+            int how = col != from ? SAME_ROW
+               : r == firstRow ? FIRST
+               : previous == col ? BELOW
+               : BELOW_BEHIND;
+            int cell = r * columns + col;
+            if (fill == null) {
+               cellStart[cell + 1]++;
+            }
+            else {
+               cellLines[fill[cell]++] = i << 2 | how;
+            }
+            if (col == to) {
+               break;
+            }
+         }
+         previous = to;
+      }
+   }
+
+   /**
+    * Returns the column of the point of segment i at height y, which
+    * must lie within the segment's rows; if before is true, returns
+    * instead the column of its points just below y. Exact: the x
+    * coordinate is kept as a fraction over the segment's height.
+    */
+   private int columnAt(int i, long y, boolean before) {
+      long dx = (long) x1[i] - x0[i];
+      long dy = (long) y1[i] - y0[i];
+      long num = ((long) x0[i] - minX) * dy + (y - y0[i]) * dx;
+      long den = cellWidth * dy;
+      long c = before && dx > 0 ? -Math.floorDiv(-num, den) - 1 : Math.floorDiv(num, den);
+      return (int) Math.max(0, Math.min(columns - 1, c));
+   }
+
+   /**
+    * Returns the number of segments in this index.
+    */
+   public int size() {
+      return lines.length;
+   }
+
+   /**
+    * Returns the segments that contain the point p, in the order they
+    * were given to the constructor, or an empty list if there are none.
+    * The list is read-only. This method throws IllegalArgumentException
+    * if p is null.
+    */
+   public List<Line> linesThrough(Point p) throws IllegalArgumentException {
+      if (p == null) {
+         throw new IllegalArgumentException();
+      }
+      List<Line> found = through.get(p);
+      return found == null ? Collections.<Line>emptyList() : found;
+   }
+
+   /**
+    * Returns the segments that meet the closed box [xmin..xmax] x
+    * [ymin..ymax], each once, in no particular order. Returns an empty
+    * list if there are none, or if xmin > xmax or ymin > ymax.
+    */
+   public List<Line> linesIn(int xmin, int ymin, int xmax, int ymax) {
+      List<Line> found = new ArrayList<Line>();
+      if (lines.length == 0 || xmin > xmax || ymin > ymax) {
+         return found;
+      }
+      int c0 = column(xmin);
+      int c1 = column(xmax);
+      int r0 = row(ymin);
+      int r1 = row(ymax);
+      for (int r = r0; r <= r1; r++) {
+         for (int col = c0; col <= c1; col++) {
+            int cell = r * columns + col;
+            for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+               int i = cellLines[k] >>> 2;
+               if (cameFromInside(i, cellLines[k] & 3, r, col, c0, r0, c1)) {
+                  continue;
+               }
+               int lx = Math.min(x0[i], x1[i]);
+               int hx = Math.max(x0[i], x1[i]);
+               if (lx > xmax || hx < xmin || y0[i] > ymax || y1[i] < ymin) {
+                  continue;
+               }
+               if (crosses(i, xmin, ymin, xmax, ymax)) {
+                  found.add(lines[i]);
+               }
+            }
+         }
+      }
+      return found;
+   }
+
+   /**
+    * Returns true if the walk of segment i reached cell (r, col) from a
+    * cell inside the query's cells [c0..c1] x [r0..], so that the
+    * segment is reported from an earlier cell instead.
+    */
+   private boolean cameFromInside(int i, int how, int r, int col, int c0, int r0, int c1) {
+      int step = x1[i] < x0[i] ? -1 : 1;
+      switch (how) {
+         case SAME_ROW:
+            return col - step >= c0 && col - step <= c1;
+         case BELOW:
+            return r - 1 >= r0;
+         case BELOW_BEHIND:
+            return r - 1 >= r0 && col - step >= c0 && col - step <= c1;
+         default:
+            return false;
+      }
+   }
+
+   /**
+    * Returns true unless the corners of the box all lie strictly on
+    * the same side of the line through segment i. Together with an
+    * overlap of bounding boxes, that is exactly when the segment meets
+    * the box.
+    */
+   private boolean crosses(int i, int xmin, int ymin, int xmax, int ymax) {
+      long dx = (long) x1[i] - x0[i];
+      long dy = (long) y1[i] - y0[i];
+      int above = 0;
+      int below = 0;
+      for (int corner = 0; corner < 4; corner++) {
+         long cx = (corner & 1) == 0 ? xmin : xmax;
+         long cy = (corner & 2) == 0 ? ymin : ymax;
+         long side = dx * (cy - y0[i]) - dy * (cx - x0[i]);
+         if (side > 0) {
+            above++;
+         }
+         else if (side < 0) {
+            below++;
+         }
+      }
+      return above < 4 && below < 4;
+   }
+
+   /**
+    * Returns the grid column holding x, clamped to the grid.
+    */
+   private int column(int x) {
+      long c = ((long) x - minX) / cellWidth;
+      return (int) Math.max(0, Math.min(columns - 1, c));
+   }
+
+   /**
+    * Returns the grid row holding y, clamped to the grid.
+    */
+   private int row(int y) {
+      long r = ((long) y - minY) / cellHeight;
+      return (int) Math.max(0, Math.min(rows - 1, r));
+   }
+
+}
@@ -25,8 +25,25 @@ public final class Point implements Comparable<Point> {
     * negative, throw an IllegalArgumentException.
     */
    public Point(int x, int y) {
-      this.x = 0;
-      this.y = 0;
+      if (x < 0 || y < 0) {
+         throw new IllegalArgumentException();
+      }
+      this.x = x;
+      this.y = y;
+   }
+
+   /** 
+    * Return the x coordinate of this point.
+    */
+   int getX() {
+      return x;
+   }
+
+   /** 
+    * Return the y coordinate of this point.
+    */
+   int getY() {
+      return y;
    }
 
    /** 
@@ -62,6 +79,14 @@ public final class Point implements Comparable<Point> {
       return (this.x == that.x) && (this.y == that.y);
    }
 
+   /**
+    * Returns a hash code for this point, consistent with equals.
+    */
+   @Override
+   public int hashCode() {
+      return 31 * y + x;
+   }
+
    /**
     * Compares this point with the specified point for order. Returns a
     * negative integer, zero, or a positive integer if this point is less
@@ -72,7 +97,13 @@ public final class Point implements Comparable<Point> {
     */
    @Override
    public int compareTo(Point that) {
-      return -99;
+      if (this.y != that.y) {
+         return this.y < that.y ? -1 : 1;
+      }
+      if (this.x != that.x) {
+         return this.x < that.x ? -1 : 1;
+      }
+      return 0;
    }    
 
    /**
@@ -85,7 +116,16 @@ public final class Point implements Comparable<Point> {
     * negative infinity.
     */
    public double slopeTo(Point that) {
-      return ((double) 1) / ((double) 2);
+      if (this.x == that.x) {
+         if (this.y == that.y) {
+            return Double.NEGATIVE_INFINITY;
+         }
+         return Double.POSITIVE_INFINITY;
+      }
+      if (this.y == that.y) {
+         return +0.0;
+      }
+      return ((double) (that.y - this.y)) / ((double) (that.x - this.x));
    }
       
    /**
@@ -102,7 +142,7 @@ public final class Point implements Comparable<Point> {
        */
       @Override   
       public int compare(Point p1, Point p2) {
-         return -99;
+         return Double.compare(slopeTo(p1), slopeTo(p2));
       }
    
    }
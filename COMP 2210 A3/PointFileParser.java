@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * PointFileParser.java. Reads Extractor's point files: a count n
+ * followed by n pairs x y of non-negative ints, all separated by
+ * whitespace.
+ *
+ * The file is memory-mapped and the ints are parsed straight from the
+ * mapped bytes, with no Scanner, String or boxing. A large file is cut
+ * into byte ranges that are parsed in parallel; each range owns the
+ * tokens that start inside it, and reads a little past its end to
+ * finish the last one.
+ *
+ * @author  Michael Johnson (mdj0025@auburn.edu)
+ * @author  Dean Hendrix (dh@auburn.edu)
+ * @version 2018-02-27
+ *
+ */
+final class PointFileParser {
+
+   /** Files at least this long are parsed in parallel. */
+   private static final long PARALLEL_BYTES = 1L << 20;
+
+   /** Most bytes in one range; keeps each mapping well below 2 GiB. */
+   private static final long MAX_RANGE = 1L << 30;
+
+   /** Longest token accepted, in bytes, counting sign and leading zeros. */
+   private static final int MAX_TOKEN = 64;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private PointFileParser() { }
+
+   /**
+    * Returns the points of the file at path, packed as by
+    * PointStore.pack, in file order. Tokens after the last pair are
+    * checked but ignored. Throws IllegalArgumentException if the file
+    * cannot be read, holds anything but whitespace-separated ints, has
+    * fewer pairs than its count, or has a negative count or coordinate.
+    */
+   static long[] parse(Path path) throws IllegalArgumentException {
+      int[][] parts;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+         long size = channel.size();
+         int ranges = 1;
+         if (size >= PARALLEL_BYTES) {
+            ranges = (int) Math.max(ForkJoinPool.getCommonPoolParallelism() * 4L,
+               (size + MAX_RANGE - 1) / MAX_RANGE);
+         }
+         int count = ranges;
+         parts = new int[count][];
+         IntStream all = IntStream.range(0, count);
+         if (count > 1) {
+            all = all.parallel();
+         }
+         all.forEach(r -> parts[r] = parseRange(channel, size, size * r / count, size * (r + 1) / count));
+      }
+      catch (IOException | UncheckedIOException e) {
+         throw new IllegalArgumentException(e);
+      }
+
+      int tokens = 0;
+      for (int[] part : parts) {
+         tokens += part.length;
+      }
+      if (tokens == 0) {
+         throw new IllegalArgumentException("point file is empty");
+      }
+      int first = 0;
+      while (parts[first].length == 0) {
+         first++;
+      }
+      int n = parts[first][0];
+      if (n < 0) {
+         throw new IllegalArgumentException("negative point count");
+      }
+      if ((tokens - 1) / 2 < n) {
+         throw new IllegalArgumentException("point file has fewer than " + n + " points");
+      }
+
+      long[] packed = new long[n];
+      int p = first;
+      int t = 1;
+      int x = 0;
+      for (int k = 0; k < 2 * n; k++) {
+         while (t == parts[p].length) {
+            p++;
+            t = 0;
+         }
+         int v = parts[p][t++];
+         if (v < 0) {
+            throw new IllegalArgumentException("negative coordinate in point " + k / 2);
+         }
+         if (k % 2 == 0) {
+            x = v;
+         }
+         else {
+            packed[k / 2] = PointStore.pack(x, v);
+         }
+      }
+      return packed;
+   }
+
+   /**
+    * Returns the ints whose tokens start in bytes [begin..end) of a
+    * file of the given size.
+    */
+   private static int[] parseRange(FileChannel channel, long size, long begin, long end) {
+      long from = Math.max(0, begin - 1);
+      long to = Math.min(size, end + MAX_TOKEN);
+      MappedByteBuffer buffer;
+      try {
+         buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+      int limit = (int) (to - from);
+      int stop = (int) (end - from);
+      int i = (int) (begin - from);
+      if (begin > 0 && !isSpace(buffer.get(i - 1))) {
+         // this token started in the previous range
+         while (i < limit && !isSpace(buffer.get(i))) {
+            i++;
+         }
+      }
+
+      int[] values = new int[Math.max(16, (stop - i) / 8)];
+      int count = 0;
+      while (true) {
+         while (i < stop && isSpace(buffer.get(i))) {
+            i++;
+         }
+         if (i >= stop) {
+            break;
+         }
+         int start = i;
+         boolean negative = false;
+         byte b = buffer.get(i);
+         if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+         }
+         long value = 0;
+         int digits = 0;
+         while (i < limit && !isSpace(b = buffer.get(i))) {
+            if (b < '0' || b > '9') {
+               throw new IllegalArgumentException("malformed point file at byte " + (from + i));
+            }
+            value = value * 10 + (b - '0');
+            if (value > 1L << 31) {
+               throw new IllegalArgumentException("int out of range at byte " + (from + start));
+            }
+            digits++;
+            i++;
+         }
+         if (digits == 0 || (i == limit && to < size) || (!negative && value > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("malformed point file at byte " + (from + start));
+         }
+         if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+         }
+         values[count++] = (int) (negative ? -value : value);
+      }
+      return Arrays.copyOf(values, count);
+   }
+
+   /**
+    * Returns true if b is an ASCII whitespace byte.
+    */
+   private static boolean isSpace(byte b) {
+      return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+   }
+
+}
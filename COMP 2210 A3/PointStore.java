@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+/**
+ * PointStore.java. Holds a set of distinct points as two parallel
+ * coordinate arrays in natural (y, then x) order, so that extraction
+ * can run over plain ints and build Point objects only for the points
+ * it reports.
+ *
+ * Each point is packed into one long, y in the high word and x in the
+ * low word. Coordinates are never negative, so the signed order of the
+ * packed values is exactly Point.compareTo, and sorting and removing
+ * duplicates is a primitive sort and a single scan.
+ *
+ * @author  Michael Johnson (mdj0025@auburn.edu)
+ * @author  Dean Hendrix (dh@auburn.edu)
+ * @version 2018-02-27
+ *
+ */
+final class PointStore {
+
+   /** coordinates of point i, in natural order without duplicates. */
+   private final int[] xs;
+   private final int[] ys;
+
+   /**
+    * Builds a store of the distinct points in points.
+    */
+   PointStore(Point[] points) {
+      this(packAll(points), points.length);
+   }
+
+   /**
+    * Builds a store of the distinct points among the first n packed
+    * values, sorting that part of packed in place.
+    */
+   PointStore(long[] packed, int n) {
+      Arrays.parallelSort(packed, 0, n);
+      int m = 0;
+      for (int i = 0; i < n; i++) {
+         if (m == 0 || packed[i] != packed[m - 1]) {
+            packed[m++] = packed[i];
+         }
+      }
+      xs = new int[m];
+      ys = new int[m];
+      for (int i = 0; i < m; i++) {
+         xs[i] = (int) packed[i];
+         ys[i] = (int) (packed[i] >>> 32);
+      }
+   }
+
+   /**
+    * Returns the number of distinct points.
+    */
+   int size() {
+      return xs.length;
+   }
+
+   /**
+    * Returns the x coordinate of point i.
+    */
+   int x(int i) {
+      return xs[i];
+   }
+
+   /**
+    * Returns the y coordinate of point i.
+    */
+   int y(int i) {
+      return ys[i];
+   }
+
+   /**
+    * Returns point i as a new Point.
+    */
+   Point point(int i) {
+      return new Point(xs[i], ys[i]);
+   }
+
+   /**
+    * Returns the packed form of (x, y); both must be non-negative.
+    */
+   static long pack(int x, int y) {
+      return ((long) y << 32) | x;
+   }
+
+   /**
+    * Returns the packed forms of points.
+    */
+   private static long[] packAll(Point[] points) {
+      long[] packed = new long[points.length];
+      for (int i = 0; i < points.length; i++) {
+         packed[i] = pack(points[i].getX(), points[i].getY());
+      }
+      return packed;
+   }
+
+}
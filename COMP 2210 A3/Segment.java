@@ -0,0 +1,152 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Segment.java
+ * Models a line segment found by Extractor as its two endpoints, a
+ * point count, and the indices of its points in the PointStore they
+ * came from. A Segment is immutable and costs one small object and one
+ * int array, however many points it has; Point objects are made only
+ * when the segment is iterated, and a full Line only by toLine.
+ *
+ * Segments are ordered and compared for equality exactly as Line is:
+ * by first point, then by last point.
+ *
+ * @author   Michael Johnson (mdj0025@auburn.edu)
+ * @author   Dean Hendrix (dh@auburn.edu)
+ * @version  2018-02-27
+ *
+ */
+public final class Segment implements Comparable<Segment>, Iterable<Point> {
+
+   /** packed first and last points; see PointStore.pack. */
+   private final long first;
+   private final long last;
+
+   /** store indices of the points of this segment, ascending. */
+   private final int[] members;
+   private final PointStore store;
+
+   /**
+    * Creates a segment of the points of store at the given ascending
+    * indices, of which there are at least two.
+    */
+   Segment(PointStore store, int[] members) {
+      this.store = store;
+      this.members = members;
+      int a = members[0];
+      int b = members[members.length - 1];
+      first = PointStore.pack(store.x(a), store.y(a));
+      last = PointStore.pack(store.x(b), store.y(b));
+   }
+
+   /**
+    * Returns the first (minimum) point in this segment.
+    */
+   public Point first() {
+      return store.point(members[0]);
+   }
+
+   /**
+    * Returns the last (maximum) point in this segment.
+    */
+   public Point last() {
+      return store.point(members[members.length - 1]);
+   }
+
+   /**
+    * Returns the number of points in this segment.
+    */
+   public int length() {
+      return members.length;
+   }
+
+   /**
+    * Returns a Line holding the points of this segment.
+    */
+   public Line toLine() {
+      Line line = new Line();
+      for (Point p : this) {
+         line.add(p);
+      }
+      return line;
+   }
+
+   /**
+    * Compares this segment with the specified segment for order, first
+    * by first point and then by last point, as Line.compareTo does.
+    */
+   @Override
+   public int compareTo(Segment that) {
+      if (this.first != that.first) {
+         return this.first < that.first ? -1 : 1;
+      }
+      if (this.last != that.last) {
+         return this.last < that.last ? -1 : 1;
+      }
+      return 0;
+   }
+
+   /**
+    * Provides an iterator over the points in this segment in ascending
+    * natural order. Each point is created as it is returned.
+    */
+   @Override
+   public Iterator<Point> iterator() {
+      return new Iterator<Point>() {
+         private int i = 0;
+
+         @Override
+         public boolean hasNext() {
+            return i < members.length;
+         }
+
+         @Override
+         public Point next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            return store.point(members[i++]);
+         }
+      };
+   }
+
+   /**
+    * Returns true if obj is a Segment with the same first and last
+    * points as this segment.
+    */
+   @Override
+   public boolean equals(Object obj) {
+      if (obj == this) {
+         return true;
+      }
+      if (!(obj instanceof Segment)) {
+         return false;
+      }
+      Segment that = (Segment) obj;
+      return this.first == that.first && this.last == that.last;
+   }
+
+   /**
+    * Returns a hash code consistent with equals.
+    */
+   @Override
+   public int hashCode() {
+      return Long.hashCode(first * 31 + last);
+   }
+
+   /**
+    * Returns a string representation of this segment, in the same form
+    * as Line.toString.
+    */
+   @Override
+   public String toString() {
+      StringBuilder s = new StringBuilder();
+      for (Point p : this) {
+         s.append(p + " -> ");
+      }
+      s = s.delete(s.length() - 4, s.length());
+      return s.toString();
+   }
+
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * SlopeTable.java. An open-addressing hash table from exact slope keys
+ * to small per-slope tallies, reused from one anchor point to the next.
+ *
+ * A slope key packs a direction (dx, dy) reduced by its gcd and signed
+ * so that dy > 0, or dy == 0 and dx > 0. Two points lie on the same line
+ * through an anchor exactly when their keys from that anchor are equal,
+ * with no floating point involved. Clearing the table is O(1): each
+ * slot carries the stamp of the anchor that last claimed it.
+ *
+ * @author  Michael Johnson (mdj0025@auburn.edu)
+ * @author  Dean Hendrix (dh@auburn.edu)
+ * @version 2018-02-27
+ *
+ */
+final class SlopeTable {
+
+   /** slot contents; a slot is live only if its stamp is current. */
+   private final long[] keys;
+   private final int[] stamps;
+
+   /** number of points seen per slope. */
+   final int[] counts;
+
+   /** true if a point before the anchor in natural order has this slope. */
+   final boolean[] blocked;
+
+   private final int shift;
+   private int stamp = 1;
+
+   /**
+    * Creates a table able to hold the slopes from one anchor to up to
+    * n other points.
+    */
+   SlopeTable(int n) {
+      int capacity = Integer.highestOneBit(Math.max(4, 2 * n - 1)) << 1;
+      keys = new long[capacity];
+      stamps = new int[capacity];
+      counts = new int[capacity];
+      blocked = new boolean[capacity];
+      shift = 64 - Integer.numberOfTrailingZeros(capacity);
+   }
+
+   /**
+    * Empties the table.
+    */
+   void clear() {
+      stamp++;
+      if (stamp == 0) {
+         Arrays.fill(stamps, 0);
+         stamp = 1;
+      }
+   }
+
+   /**
+    * Returns the slot holding key, claiming and zeroing an empty one
+    * if key is not present yet.
+    */
+   int slot(long key) {
+      int mask = keys.length - 1;
+      int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+      while (stamps[i] == stamp) {
+         if (keys[i] == key) {
+            return i;
+         }
+         i = (i + 1) & mask;
+      }
+      stamps[i] = stamp;
+      keys[i] = key;
+      counts[i] = 0;
+      blocked[i] = false;
+      return i;
+   }
+
+   /**
+    * Returns the slope key of the direction (dx, dy), which must not be
+    * (0, 0). Axis directions and steps of one in either coordinate need
+    * no reduction, so they skip the gcd and the divisions.
+    */
+   static long key(int dx, int dy) {
+      if (dx == 0) {
+         return 1L << 32;
+      }
+      if (dy == 0) {
+         return 1L;
+      }
+      if (dx != 1 && dx != -1 && dy != 1 && dy != -1) {
+         int g = gcd(Math.abs(dx), Math.abs(dy));
+         if (g != 1) {
+            dx /= g;
+            dy /= g;
+         }
+      }
+      if (dy < 0) {
+         dx = -dx;
+         dy = -dy;
+      }
+      return ((long) dy << 32) | (dx & 0xFFFFFFFFL);
+   }
+
+   /**
+    * Returns the greatest common divisor of two non-negative ints that
+    * are not both zero, by the binary method: common factors of two are
+    * shifted out, and then the smaller odd value is subtracted from the
+    * larger until they meet, with no division.
+    */
+   static int gcd(int a, int b) {
+      if (a == 0 || b == 0) {
+         return a | b;
+      }
+      int shift = Integer.numberOfTrailingZeros(a | b);
+      a >>>= Integer.numberOfTrailingZeros(a);
+      while (b != 0) {
+         b >>>= Integer.numberOfTrailingZeros(b);
+         int d = b - a;
+         a = Math.min(a, b);
+         b = Math.abs(d);
+      }
+      return a << shift;
+   }
+
+}
@@ -0,0 +1,239 @@
+import java.util.BitSet;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every word of a lexicon that can be formed on a square board by
+ * a path of adjacent, distinct cells, as Scrabble.getAllValidWords
+ * defines it.
+ *
+ * The board is flattened once into row-major tiles and a table of each
+ * cell's neighbor indices. A search runs in a Traversal, which owns a
+ * visited array that is set and cleared along the path, a char buffer
+ * holding the current word, and the lexicon cursor of that word. Apart
+ * from the Strings of the words it reports, the depth-first loop
+ * allocates nothing. When every tile is upper case, a word found twice
+ * is recognized by its lexicon cursor, so no String is made for it the
+ * second time.
+ *
+ * A BoardSolver is immutable; Traversals are not, and each thread needs
+ * its own. solveParallel splits the starting cells over the common
+ * ForkJoinPool, one Traversal per task.
+ *
+ * @author Michael Johnson (mdj0025@auburn.edu)
+ * @author Dean Hendrix (dh@auburn.edu)
+ * @version 2018-03-22
+ */
+final class BoardSolver {
+
+   private final Lexicon lexicon;
+
+   /** tile of each cell, in row-major order. */
+   private final String[] tiles;
+
+   /** neighbors of cell c are neighbors[neighborStart[c]..neighborStart[c + 1]). */
+   private final int[] neighborStart;
+   private final int[] neighbors;
+
+   /** total length of all tiles, the longest possible word. */
+   private final int maxChars;
+
+   /** true if no tile changes when upper-cased. */
+   private final boolean upperCase;
+
+   /**
+    * Prepares to solve the square board against lexicon.
+    *
+    * @param board the board, indexed [row][column]
+    * @param lexicon the lexicon to search
+    */
+   BoardSolver(String[][] board, Lexicon lexicon) {
+      this.lexicon = lexicon;
+      int n = board.length;
+      tiles = new String[n * n];
+      neighborStart = new int[n * n + 1];
+      neighbors = new int[8 * n * n];
+      int chars = 0;
+      boolean upper = true;
+      int k = 0;
+      for (int i = 0; i < n; i++) {
+         for (int j = 0; j < n; j++) {
+            int cell = i * n + j;
+            tiles[cell] = board[i][j];
+            chars += board[i][j].length();
+            upper &= board[i][j].equals(board[i][j].toUpperCase());
+            neighborStart[cell] = k;
+            for (int di = -1; di <= 1; di++) {
+               for (int dj = -1; dj <= 1; dj++) {
+                  int r = i + di;
+                  int c = j + dj;
+                  if ((di != 0 || dj != 0) && r >= 0 && r < n && c >= 0 && c < n) {
+                     neighbors[k++] = r * n + c;
+                  }
+               }
+            }
+         }
+      }
+      neighborStart[n * n] = k;
+      maxChars = chars;
+      upperCase = upper;
+   }
+
+   /**
+    * Returns the number of cells on the board.
+    *
+    * @return the number of cells
+    */
+   int cells() {
+      return tiles.length;
+   }
+
+   /**
+    * Returns all words of at least minimumWordLength characters that
+    * can be formed on the board.
+    *
+    * @param minimumWordLength the fewest characters in a reported word
+    * @return the words, in String order
+    */
+   SortedSet<String> solve(int minimumWordLength) {
+      Traversal t = new Traversal(minimumWordLength);
+      for (int cell = 0; cell < tiles.length; cell++) {
+         t.searchFrom(cell);
+      }
+      return t.words;
+   }
+
+   /**
+    * Returns the same words as solve, searching from ranges of starting
+    * cells in parallel on the common ForkJoinPool. Each task has its own
+    * Traversal, and the tasks' word sets are merged at the end.
+    *
+    * @param minimumWordLength the fewest characters in a reported word
+    * @return the words, in String order
+    */
+   SortedSet<String> solveParallel(int minimumWordLength) {
+      int grain = Math.max(1, tiles.length / (ForkJoinPool.getCommonPoolParallelism() * 4));
+      return ForkJoinPool.commonPool().invoke(new SolveTask(minimumWordLength, 0, tiles.length, grain));
+   }
+
+   /**
+    * Searches from the starting cells [lo..hi), splitting the range
+    * until it is no longer than grain.
+    */
+   private final class SolveTask extends RecursiveTask<SortedSet<String>> {
+      private static final long serialVersionUID = 1L;
+
+      private final int min;
+      private final int lo;
+      private final int hi;
+      private final int grain;
+
+      SolveTask(int min, int lo, int hi, int grain) {
+         this.min = min;
+         this.lo = lo;
+         this.hi = hi;
+         this.grain = grain;
+      }
+
+      @Override
+      protected SortedSet<String> compute() {
+         if (hi - lo <= grain) {
+            Traversal t = new Traversal(min);
+            for (int cell = lo; cell < hi; cell++) {
+               t.searchFrom(cell);
+            }
+            return t.words;
+         }
+         int mid = (lo + hi) >>> 1;
+         SolveTask left = new SolveTask(min, lo, mid, grain);
+         left.fork();
+         SortedSet<String> words = new SolveTask(min, mid, hi, grain).compute();
+         SortedSet<String> other = left.join();
+         if (other.size() > words.size()) {
+            other.addAll(words);
+            return other;
+         }
+         words.addAll(other);
+         return words;
+      }
+   }
+
+   /**
+    * The mutable state of one depth-first search over the board.
+    */
+   final class Traversal {
+
+      /** words found so far. */
+      final SortedSet<String> words = new TreeSet<String>();
+
+      private final int min;
+      private final boolean[] visited = new boolean[tiles.length];
+      private final char[] buffer = new char[maxChars];
+      private int length;
+
+      /** cursors of words already in words; used only if upperCase. */
+      private final BitSet found = new BitSet();
+
+      /**
+       * Creates a traversal that reports words of at least min
+       * characters.
+       *
+       * @param min the fewest characters in a reported word
+       */
+      Traversal(int min) {
+         this.min = min;
+      }
+
+      /**
+       * Adds to words every word whose path starts at cell.
+       *
+       * @param cell the row-major index of the first cell
+       */
+      void searchFrom(int cell) {
+         extend(cell, lexicon.root());
+      }
+
+      /**
+       * Appends the tile of cell to the current word, whose cursor is
+       * cursor, reports it if it is a word, and continues into every
+       * unvisited neighbor while it is still a prefix.
+       */
+      private void extend(int cell, int cursor) {
+         String tile = tiles[cell];
+         int next = lexicon.step(cursor, tile);
+         if (next == Lexicon.NONE) {
+            return;
+         }
+         int before = length;
+         tile.getChars(0, tile.length(), buffer, length);
+         length += tile.length();
+         visited[cell] = true;
+         if (length >= min && lexicon.isWord(next)) {
+            report(next);
+         }
+         for (int k = neighborStart[cell]; k < neighborStart[cell + 1]; k++) {
+            if (!visited[neighbors[k]]) {
+               extend(neighbors[k], next);
+            }
+         }
+         visited[cell] = false;
+         length = before;
+      }
+
+      /**
+       * Adds the current word, whose cursor is cursor, to words.
+       */
+      private void report(int cursor) {
+         if (!upperCase) {
+            words.add(new String(buffer, 0, length));
+         }
+         else if (!found.get(cursor)) {
+            found.set(cursor);
+            words.add(new String(buffer, 0, length));
+         }
+      }
+   }
+
+}
@@ -0,0 +1,83 @@
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A read-only word list that can be walked one board tile at a time.
+ * Positions in the walk are int cursors: a cursor names a prefix of at
+ * least one word, root() names the empty prefix, and step extends a
+ * cursor by the characters of a tile. Cursors other than NONE are
+ * non-negative, and each word has exactly one. Words are compared without regard
+ * to case. Implementations are immutable and safe for concurrent use.
+ *
+ * @author Michael Johnson (mdj0025@auburn.edu)
+ * @author Dean Hendrix (dh@auburn.edu)
+ * @version 2018-03-22
+ */
+interface Lexicon {
+
+   /** The cursor returned by step when no word has the extended prefix. */
+   int NONE = -1;
+
+   /**
+    * Reads the lexicon in file, mapping it if it is a lexicon image
+    * written by MappedLexicon and parsing it as a word list otherwise.
+    *
+    * @param file a lexicon image or text word list
+    * @return the lexicon of file
+    * @throws IOException if file cannot be read
+    */
+   static Lexicon read(File file) throws IOException {
+      if (MappedLexicon.isImage(file.toPath())) {
+         return MappedLexicon.open(file.toPath());
+      }
+      return TrieLexicon.read(file);
+   }
+
+   /**
+    * Returns the cursor of the empty prefix.
+    *
+    * @return the root cursor, or NONE if this lexicon has no words
+    */
+   int root();
+
+   /**
+    * Extends a prefix by the characters of s, in O(|s|) time and without
+    * allocating.
+    *
+    * @param cursor a cursor of this lexicon
+    * @param s the characters to append
+    * @return the cursor of the extended prefix, or NONE if no word has it
+    *     or cursor is NONE
+    */
+   int step(int cursor, CharSequence s);
+
+   /**
+    * Determines if the prefix named by cursor is itself a word.
+    *
+    * @param cursor a cursor of this lexicon other than NONE
+    * @return true if the prefix is a word, false otherwise
+    */
+   boolean isWord(int cursor);
+
+   /**
+    * Determines if word is in this lexicon.
+    *
+    * @param word the word to look up
+    * @return true if word is in this lexicon, false otherwise
+    */
+   default boolean contains(CharSequence word) {
+      int cursor = step(root(), word);
+      return cursor != NONE && isWord(cursor);
+   }
+
+   /**
+    * Determines if at least one word in this lexicon starts with prefix.
+    *
+    * @param prefix the prefix to look up
+    * @return true if some word starts with prefix, false otherwise
+    */
+   default boolean hasPrefix(CharSequence prefix) {
+      return step(root(), prefix) != NONE;
+   }
+
+}
@@ -0,0 +1,165 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A process-wide cache of lexicons, so that every game played against
+ * the same dictionary file shares one immutable Lexicon. Entries are
+ * keyed by the file's absolute path and modification time: a file that
+ * changes on disk is loaded afresh by the next acquire, while games that
+ * already hold the old version keep it.
+ *
+ * Each acquire returns a Lease and counts one reference to its entry;
+ * closing the Lease releases it, and the entry is evicted when its last
+ * reference is released. Reference counts change only inside
+ * ConcurrentHashMap.compute, so acquire and release are atomic per file.
+ * A lexicon is loaded once per entry, by the first acquire that needs
+ * it; concurrent acquires of the same file wait for that load rather
+ * than repeating it.
+ *
+ * @author Michael Johnson (mdj0025@auburn.edu)
+ * @author Dean Hendrix (dh@auburn.edu)
+ * @version 2018-03-22
+ */
+final class LexiconCache {
+
+   private static final ConcurrentHashMap<Key, Entry> ENTRIES = new ConcurrentHashMap<Key, Entry>();
+
+   /** A dictionary file as it was at one modification time. */
+   private static final class Key {
+      final Path path;
+      final long modified;
+
+      Key(Path path, long modified) {
+         this.path = path;
+         this.modified = modified;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (!(obj instanceof Key)) {
+            return false;
+         }
+         Key that = (Key) obj;
+         return modified == that.modified && path.equals(that.path);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * path.hashCode() + Long.hashCode(modified);
+      }
+   }
+
+   /** A cached lexicon and the number of Leases that hold it. */
+   private static final class Entry {
+      final Key key;
+
+      /** guarded by ENTRIES' lock on key. */
+      int refs;
+
+      private volatile Lexicon lexicon;
+
+      Entry(Key key) {
+         this.key = key;
+      }
+
+      /**
+       * Returns the lexicon of this entry, loading it on first use.
+       */
+      Lexicon lexicon() throws IOException {
+         Lexicon result = lexicon;
+         if (result == null) {
+            synchronized (this) {
+               result = lexicon;
+               if (result == null) {
+                  result = Lexicon.read(key.path.toFile());
+                  lexicon = result;
+               }
+            }
+         }
+         return result;
+      }
+   }
+
+   /**
+    * One reference to a cached lexicon, released by close.
+    */
+   static final class Lease implements AutoCloseable {
+      private final Entry entry;
+      private final AtomicBoolean closed = new AtomicBoolean();
+
+      private Lease(Entry entry) {
+         this.entry = entry;
+      }
+
+      /**
+       * Returns the shared lexicon.
+       *
+       * @return the lexicon of this lease's file
+       */
+      Lexicon lexicon() {
+         return entry.lexicon;
+      }
+
+      /**
+       * Releases this lease; later calls do nothing.
+       */
+      @Override
+      public void close() {
+         if (closed.compareAndSet(false, true)) {
+            release(entry);
+         }
+      }
+   }
+
+   /**
+    * Can't instantiate this class.
+    */
+   private LexiconCache() { }
+
+   /**
+    * Returns a lease on the shared lexicon of fileName, loading it if no
+    * current lease holds the file as it is now.
+    *
+    * @param fileName a text word list or a lexicon image
+    * @return a lease on the lexicon of fileName
+    * @throws IOException if fileName cannot be read
+    */
+   static Lease acquire(String fileName) throws IOException {
+      Path path = Paths.get(fileName).toAbsolutePath().normalize();
+      Key key = new Key(path, Files.getLastModifiedTime(path).toMillis());
+      Entry entry = ENTRIES.compute(key, (k, e) -> {
+         Entry held = e == null ? new Entry(k) : e;
+         held.refs++;
+         return held;
+      });
+      try {
+         entry.lexicon();
+      }
+      catch (IOException | RuntimeException e) {
+         release(entry);
+         throw e;
+      }
+      return new Lease(entry);
+   }
+
+   /**
+    * Returns the number of dictionary files currently cached.
+    *
+    * @return the number of entries
+    */
+   static int size() {
+      return ENTRIES.size();
+   }
+
+   /**
+    * Drops one reference to entry, evicting it if that was the last.
+    */
+   private static void release(Entry entry) {
+      ENTRIES.computeIfPresent(entry.key, (k, e) -> e == entry && --e.refs == 0 ? null : e);
+   }
+
+}
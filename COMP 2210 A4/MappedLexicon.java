@@ -0,0 +1,205 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Lexicon read in place from a memory-mapped lexicon image. The image
+ * holds the three arrays of a TrieLexicon, so a MappedLexicon walks the
+ * same trie with the same cursors; opening one reads only the header,
+ * and pages of the trie are loaded by the operating system as a search
+ * touches them. A mapping is read-only, so every JVM on a host that
+ * opens the same image shares one copy of it in the page cache.
+ *
+ * An image is written once from a text word list:
+ *
+ *    java MappedLexicon words.txt words.lex
+ *
+ * and Scrabble.loadLexicon accepts either file. All values in an image
+ * are big-endian:
+ *
+ *    int     MAGIC
+ *    int     n, the number of trie nodes
+ *    int     first[0..n]
+ *    char    label[0..n-1]
+ *    byte    word bits, (n + 7) / 8 bytes; node c is a word if bit
+ *            c % 8 of byte c / 8 is set
+ *
+ * @author Michael Johnson (mdj0025@auburn.edu)
+ * @author Dean Hendrix (dh@auburn.edu)
+ * @version 2018-03-22
+ */
+final class MappedLexicon implements Lexicon {
+
+   /** The first four bytes of every lexicon image, "LEX1". */
+   static final int MAGIC = 0x4C455831;
+
+   private static final int HEADER_BYTES = 8;
+
+   private final int nodes;
+   private final IntBuffer first;
+   private final CharBuffer label;
+   private final ByteBuffer word;
+
+   /**
+    * Wraps the mapped image in views of its three arrays.
+    */
+   private MappedLexicon(MappedByteBuffer image) {
+      if (image.capacity() < HEADER_BYTES || image.getInt(0) != MAGIC) {
+         throw new IllegalArgumentException("not a lexicon image");
+      }
+      nodes = image.getInt(4);
+      if (nodes < 0 || image.capacity() != imageBytes(nodes)) {
+         throw new IllegalArgumentException("lexicon image is truncated or corrupt");
+      }
+      int labelAt = HEADER_BYTES + 4 * (nodes + 1);
+      int wordAt = labelAt + 2 * nodes;
+      first = region(image, HEADER_BYTES, labelAt).asIntBuffer();
+      label = region(image, labelAt, wordAt).asCharBuffer();
+      word = region(image, wordAt, image.capacity());
+   }
+
+   /**
+    * Maps the lexicon image in file.
+    *
+    * @param file a lexicon image
+    * @return a lexicon over the mapped image
+    * @throws IOException if file cannot be read
+    * @throws IllegalArgumentException if file is not a well-formed image
+    */
+   static MappedLexicon open(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+         if (channel.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("lexicon image is larger than 2 GiB");
+         }
+         return new MappedLexicon(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+   }
+
+   /**
+    * Determines if file starts with MAGIC, and so should be opened as an
+    * image rather than read as a word list.
+    *
+    * @param file the file to test
+    * @return true if file starts like a lexicon image, false otherwise
+    * @throws IOException if file cannot be read
+    */
+   static boolean isImage(Path file) throws IOException {
+      try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+         return in.readInt() == MAGIC;
+      }
+      catch (EOFException e) {
+         return false;
+      }
+   }
+
+   /**
+    * Writes the arrays of a trie to file as a lexicon image; see the
+    * class comment for the layout.
+    *
+    * @param file the image to create or replace
+    * @param first the child ranges of the trie, of length n + 1
+    * @param label the edge labels of the trie, of length n
+    * @param word the word flags of the trie, of length n
+    * @throws IOException if file cannot be written
+    */
+   static void write(Path file, int[] first, char[] label, boolean[] word) throws IOException {
+      int n = label.length;
+      try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+         out.writeInt(MAGIC);
+         out.writeInt(n);
+         for (int f : first) {
+            out.writeInt(f);
+         }
+         for (char c : label) {
+            out.writeChar(c);
+         }
+         for (int c = 0; c < n; c += 8) {
+            int bits = 0;
+            for (int b = 0; b < 8 && c + b < n; b++) {
+               if (word[c + b]) {
+                  bits |= 1 << b;
+               }
+            }
+            out.writeByte(bits);
+         }
+      }
+   }
+
+   /**
+    * Compiles a text word list into a lexicon image.
+    *
+    * Usage: java MappedLexicon wordList image
+    */
+   public static void main(String[] args) throws IOException {
+      if (args.length != 2) {
+         System.err.println("Usage: java MappedLexicon wordList image");
+         System.exit(2);
+      }
+      TrieLexicon.read(new File(args[0])).write(new File(args[1]).toPath());
+   }
+
+   @Override
+   public int root() {
+      return nodes == 0 ? NONE : 0;
+   }
+
+   @Override
+   public int step(int cursor, CharSequence s) {
+      for (int k = 0; k < s.length() && cursor != NONE; k++) {
+         char c = Character.toUpperCase(s.charAt(k));
+         int low = first.get(cursor);
+         int high = first.get(cursor + 1) - 1;
+         cursor = NONE;
+         while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char m = label.get(mid);
+            if (m < c) {
+               low = mid + 1;
+            }
+            else if (m > c) {
+               high = mid - 1;
+            }
+            else {
+               cursor = mid;
+               break;
+            }
+         }
+      }
+      return cursor;
+   }
+
+   @Override
+   public boolean isWord(int cursor) {
+      return (word.get(cursor >>> 3) & (1 << (cursor & 7))) != 0;
+   }
+
+   /**
+    * Returns the size in bytes of an image of a trie with n nodes.
+    */
+   private static long imageBytes(int n) {
+      return HEADER_BYTES + 4L * (n + 1) + 2L * n + (n + 7L) / 8;
+   }
+
+   /**
+    * Returns a view of bytes [from..to) of image.
+    */
+   private static ByteBuffer region(ByteBuffer image, int from, int to) {
+      ByteBuffer view = image.duplicate();
+      view.position(from);
+      view.limit(to);
+      return view.slice();
+   }
+
+}
@@ -1,19 +1,15 @@
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.NavigableSet;
 import java.util.NoSuchElementException;
-import java.util.Scanner;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 
 
-public class Scrabble implements WordSearchGame {
-   private NavigableSet<String> lexicon;
+public class Scrabble implements WordSearchGame, AutoCloseable {
+   private Lexicon lexicon;
    private List<Integer> path;
    private List<Integer> actualPath;
    private int length;
@@ -31,12 +27,13 @@ public class Scrabble implements WordSearchGame {
    private int[][] grid;
    private int order;
    private int minLength;
+   private BoardSolver solver; //Built on first solve; reset by setBoard and loadLexicon.
+   private LexiconCache.Lease lease; //Held while lexicon is shared; released by close.
    /** This is the constructor for the Scrabble class.
     *
     */
    
    public Scrabble() {
-      lexicon = new TreeSet<String>();
       path = new ArrayList<Integer>();
       allWords = new TreeSet<String>();
       actualPath = new ArrayList<Integer>();
@@ -46,7 +43,9 @@ public class Scrabble implements WordSearchGame {
                                              {"Q", "T", "T", "Y"}};
    }
    /**
-    * Loads the lexicon into a data structure for later use. 
+    * Loads the lexicon into a data structure for later use. fileName may
+    * be a text word list or a lexicon image written by MappedLexicon,
+    * which is memory-mapped instead of parsed.
     * 
     * @param fileName A string containing the name of the file to be opened.
     * @throws IllegalArgumentException if fileName is null
@@ -58,16 +57,9 @@ public class Scrabble implements WordSearchGame {
          throw new IllegalArgumentException();
       }
       
-      lexicon = new TreeSet<String>();
-      lexiconLoaded = false;
+      close();
       try {
-         Scanner s = 
-            new Scanner(new BufferedReader(new FileReader(new File(fileName))));
-         while (s.hasNext()) {
-            String str = s.next();
-            lexicon.add(str.toUpperCase());
-            s.nextLine();
-         }
+         lexicon = Lexicon.read(new File(fileName));
          lexiconLoaded = true;
       }
       catch (Exception e) {
@@ -75,6 +67,48 @@ public class Scrabble implements WordSearchGame {
       }
    }   
     
+   /**
+    * Loads the lexicon like loadLexicon, but shares it through
+    * LexiconCache with every other game using the same file, rather than
+    * building a private copy. The shared lexicon is held until close or
+    * the next call to loadLexicon or loadSharedLexicon.
+    * 
+    * @param fileName A string containing the name of the file to be opened.
+    * @throws IllegalArgumentException if fileName is null
+    * @throws IllegalArgumentException if fileName cannot be opened.
+    */
+   public void loadSharedLexicon(String fileName) {
+      if (fileName == null) {
+         throw new IllegalArgumentException();
+      }
+      
+      close();
+      try {
+         lease = LexiconCache.acquire(fileName);
+         lexicon = lease.lexicon();
+         lexiconLoaded = true;
+      }
+      catch (Exception e) {
+         throw new IllegalArgumentException();
+      }
+   }
+   
+   /**
+    * Unloads the lexicon, releasing it to LexiconCache if it is shared.
+    * The game can be used again after another call to loadLexicon or
+    * loadSharedLexicon.
+    */
+   @Override
+   public void close() {
+      if (lease != null) {
+         lease.close();
+         lease = null;
+      }
+      lexicon = null;
+      solver = null;
+      lexiconLoaded = false;
+   }
+   
 /**
     * Stores the incoming array of Strings in a data structure that will make
     * it convenient to find words.
@@ -100,6 +134,7 @@ public class Scrabble implements WordSearchGame {
       root = (int)Math.sqrt(length);
       
       board = new String[root][root];
+      solver = null;
       int i = 0;
       int j = 0;
       for (String s: letterArray) {
@@ -143,25 +178,43 @@ public class Scrabble implements WordSearchGame {
       if (minimumWordLength < 1) {
          throw new IllegalArgumentException("Invalid Number");
       }
-      path2 = new ArrayList<Position>();
-      allWords = new TreeSet<String>();
-      currentWord = "";
-      for (int i = 0; i < root; i++) {
-         for (int j = 0; j < root; j++) {
-            currentWord = board[i][j];
-            
-            if (isValidWord(currentWord) && currentWord.length() >= minimumWordLength) {
-               allWords.add(currentWord);
-            }
-            
-            if (isValidPrefix(currentWord)) {
-               Position temp = new Position(i, j);
-               path2.add(temp);
-               depthFirstSearch(i, j, minimumWordLength);
-               path2.remove(temp);
-            }
-         }
+      if (board == null) {
+         return new TreeSet<String>();
+      }
+      if (solver == null) {
+         solver = new BoardSolver(board, lexicon);
       }
+      allWords = solver.solve(minimumWordLength);
+      return allWords;
+   }
+   
+   /**
+    * Retrieves the same words as getAllValidWords, searching from the
+    * starting cells in parallel on the common ForkJoinPool. Each task
+    * keeps its own traversal state, so the results do not depend on the
+    * number of threads.
+    * 
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on the board.
+    * @return java.util.SortedSet which contains all the words of minimum length
+    *     found on the game board and in the lexicon.
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> getAllValidWordsParallel(int minimumWordLength) {
+      if (!lexiconLoaded) {
+         throw new IllegalStateException("Load Lexicon");
+      }
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException("Invalid Number");
+      }
+      if (board == null) {
+         return new TreeSet<String>();
+      }
+      if (solver == null) {
+         solver = new BoardSolver(board, lexicon);
+      }
+      allWords = solver.solveParallel(minimumWordLength);
       return allWords;
    }
    
@@ -207,7 +260,6 @@ public class Scrabble implements WordSearchGame {
       if (wordToCheck == null) {
          throw new IllegalArgumentException("Invalid word"); 
       }
-      wordToCheck = wordToCheck.toUpperCase();
       return lexicon.contains(wordToCheck);
    }
    /**
@@ -227,13 +279,7 @@ public class Scrabble implements WordSearchGame {
       if (prefixToCheck == null) {
          throw new NoSuchElementException();
       }
-      prefixToCheck = prefixToCheck.toUpperCase();
-      String value = lexicon.ceiling(prefixToCheck);
-      boolean isTrue = false;
-      if (value != null) {
-         return value.startsWith(prefixToCheck);
-      }
-      return isTrue;
+      return lexicon.hasPrefix(prefixToCheck);
    }
    /**
     * Determines if the given word is in on the game board. If so, it returns
@@ -291,35 +337,6 @@ public class Scrabble implements WordSearchGame {
       return path;     
    }
    
-   private void depthFirstSearch(int x, int y, int min) {
-      Position start = new Position(x, y);
-      markAllUnvisited();
-      markPathVisited();
-      
-      for (Position p : start.neighbors()) {
-         if (!isVisited(p)) {
-            visit(p);
-            
-            if (isValidPrefix(currentWord + board[p.x][p.y])) {
-               currentWord += board[p.x][p.y];
-               path2.add(p);
-               
-               if (isValidWord(currentWord) && currentWord.length() >= min) {
-                  allWords.add(currentWord);
-               }
-               depthFirstSearch(p.x, p.y, min);
-               path2.remove(p);
-               int endIndex = currentWord.length() - board[p.x][p.y].length();
-               currentWord = currentWord.substring(0, endIndex);
-            }
-         }
-         
-         
-      }
-      markAllUnvisited();
-      markPathVisited();
-   }
-   
    private void depthFirstSearch2(int x, int y, String wordToCheck) {
       Position start = new Position(x, y);
       markAllUnvisited();
@@ -0,0 +1,172 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * A Lexicon stored as a trie in three flat arrays. Nodes are numbered in
+ * breadth-first order, so the children of every node are consecutive
+ * and sorted by character: the children of node n are the nodes
+ * first[n] up to first[n + 1] - 1, and label[c] is the character on the
+ * edge into node c. A cursor is a node number, and stepping by one
+ * character is a binary search among at most a few dozen labels. Every
+ * node lies on the path of some word, so every cursor other than NONE
+ * is a valid prefix.
+ *
+ * @author Michael Johnson (mdj0025@auburn.edu)
+ * @author Dean Hendrix (dh@auburn.edu)
+ * @version 2018-03-22
+ */
+final class TrieLexicon implements Lexicon {
+
+   private final int[] first;
+   private final char[] label;
+   private final boolean[] word;
+
+   /**
+    * Builds a trie of the given words, which must be upper case, sorted
+    * and distinct.
+    *
+    * @param words the words, in String order
+    */
+   TrieLexicon(List<String> words) {
+      // breadth-first queue of word ranges; queue index = node number
+      int capacity = 16;
+      int[] lo = new int[capacity];
+      int[] hi = new int[capacity];
+      int[] depth = new int[capacity];
+      char[] edge = new char[capacity];
+      int[] start = new int[capacity];
+      boolean[] isWord = new boolean[capacity];
+      hi[0] = words.size();
+      int nodes = words.isEmpty() ? 0 : 1;
+      for (int n = 0; n < nodes; n++) {
+         int i = lo[n];
+         int d = depth[n];
+         if (words.get(i).length() == d) {
+            isWord[n] = true;
+            i++;
+         }
+         start[n] = nodes;
+         while (i < hi[n]) {
+            char c = words.get(i).charAt(d);
+            int j = i + 1;
+            while (j < hi[n] && words.get(j).charAt(d) == c) {
+               j++;
+            }
+            if (nodes == capacity) {
+               capacity *= 2;
+               lo = Arrays.copyOf(lo, capacity);
+               hi = Arrays.copyOf(hi, capacity);
+               depth = Arrays.copyOf(depth, capacity);
+               edge = Arrays.copyOf(edge, capacity);
+               start = Arrays.copyOf(start, capacity);
+               isWord = Arrays.copyOf(isWord, capacity);
+            }
+            lo[nodes] = i;
+            hi[nodes] = j;
+            depth[nodes] = d + 1;
+            edge[nodes] = c;
+            nodes++;
+            i = j;
+         }
+      }
+      first = Arrays.copyOf(start, nodes + 1);
+      first[nodes] = nodes;
+      label = Arrays.copyOf(edge, nodes);
+      word = Arrays.copyOf(isWord, nodes);
+   }
+
+   /**
+    * Returns a trie of the given words, in any case and order and with
+    * any repeats.
+    *
+    * @param words the words
+    * @return a lexicon of the upper-case forms of words
+    */
+   static TrieLexicon of(Collection<String> words) {
+      List<String> sorted = new ArrayList<String>(words.size());
+      for (String w : words) {
+         sorted.add(w.toUpperCase());
+      }
+      sorted.sort(null);
+      int m = 0;
+      for (int i = 0; i < sorted.size(); i++) {
+         if (m == 0 || !sorted.get(i).equals(sorted.get(m - 1))) {
+            sorted.set(m++, sorted.get(i));
+         }
+      }
+      return new TrieLexicon(sorted.subList(0, m));
+   }
+
+   /**
+    * Returns a trie of the words in a text word list, the first
+    * whitespace-delimited token of each line.
+    *
+    * @param file the word list
+    * @return a lexicon of the upper-case forms of its words
+    * @throws IOException if file cannot be read
+    */
+   static TrieLexicon read(File file) throws IOException {
+      try (Scanner s = new Scanner(new BufferedReader(new FileReader(file)))) {
+         List<String> words = new ArrayList<String>();
+         while (s.hasNext()) {
+            words.add(s.next());
+            s.nextLine();
+         }
+         return of(words);
+      }
+   }
+
+   /**
+    * Writes this trie to file as a lexicon image that MappedLexicon can
+    * open.
+    *
+    * @param file the image to create or replace
+    * @throws IOException if file cannot be written
+    */
+   void write(Path file) throws IOException {
+      MappedLexicon.write(file, first, label, word);
+   }
+
+   @Override
+   public int root() {
+      return label.length == 0 ? NONE : 0;
+   }
+
+   @Override
+   public int step(int cursor, CharSequence s) {
+      for (int k = 0; k < s.length() && cursor != NONE; k++) {
+         char c = Character.toUpperCase(s.charAt(k));
+         int low = first[cursor];
+         int high = first[cursor + 1] - 1;
+         cursor = NONE;
+         while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (label[mid] < c) {
+               low = mid + 1;
+            }
+            else if (label[mid] > c) {
+               high = mid - 1;
+            }
+            else {
+               cursor = mid;
+               break;
+            }
+         }
+      }
+      return cursor;
+   }
+
+   @Override
+   public boolean isWord(int cursor) {
+      return word[cursor];
+   }
+
+}
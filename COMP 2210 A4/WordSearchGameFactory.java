@@ -18,4 +18,20 @@ public class WordSearchGameFactory {
    
    }
 
+   /**
+    * Returns a game whose lexicon is already loaded from lexiconFile and
+    * shared with every other game created for the same file. Closing the
+    * game releases its hold on the lexicon.
+    *
+    * @param lexiconFile a text word list or a lexicon image
+    * @return a new game using the shared lexicon of lexiconFile
+    * @throws IllegalArgumentException if lexiconFile is null or cannot be
+    *     opened
+    */
+   public static Scrabble createGame(String lexiconFile) {
+      Scrabble a = new Scrabble();
+      a.loadSharedLexicon(lexiconFile);
+      return a;
+   }
+
 }